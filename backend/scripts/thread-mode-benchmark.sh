@@ -0,0 +1,74 @@
+#!/usr/bin/env bash
+# Compares exam endpoint throughput and p99 latency with platform threads
+# versus virtual threads. Both runs use the same jar, JVM, database and
+# connection pool size, so the only difference is spring.threads.virtual.enabled.
+#
+# Requires Java 21+ on PATH (or JAVA_HOME) and a PostgreSQL database. The
+# schedule cache is switched off so every request reaches JPA.
+#
+#   DB_URL=jdbc:postgresql://localhost:5432/scheduler_bench DB_USER=postgres DB_PASSWORD=secret \
+#       scripts/thread-mode-benchmark.sh
+#
+# Environment: USERS (200), CONCURRENCY (400), DURATION (30s), WARMUP (10s),
+# DB_POOL_SIZE (20), PORT (8081), SEED (true; set false to reuse seeded data).
+
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+JAVA="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+USERS="${USERS:-200}"
+CONCURRENCY="${CONCURRENCY:-400}"
+DURATION="${DURATION:-30s}"
+WARMUP="${WARMUP:-10s}"
+PORT="${PORT:-8081}"
+SEED="${SEED:-true}"
+BENCHMARK=src/loadtest/java/com/conestoga/scheduler/loadtest/ThreadModeBenchmark.java
+
+if [ "$("$JAVA" -XshowSettings:properties -version 2>&1 | awk -F= '/java.specification.version/ {gsub(/ /, "", $2); print $2}')" -lt 21 ]; then
+  echo "Java 21 or newer is required to compare against virtual threads" >&2
+  exit 1
+fi
+
+mvn -B -q package -DskipTests
+JAR=$(ls target/exam-scheduler-*.jar | grep -v original | head -1)
+
+run_mode() {
+  local label=$1 virtual=$2
+  "$JAVA" -Djdk.tracePinnedThreads=short -jar "$JAR" \
+    --server.port="$PORT" \
+    --spring.datasource.url="${DB_URL:-jdbc:postgresql://localhost:5432/conestoga_scheduler}" \
+    --spring.datasource.username="${DB_USER:-postgres}" \
+    --spring.datasource.password="${DB_PASSWORD:-}" \
+    --spring.datasource.hikari.maximum-pool-size="${DB_POOL_SIZE:-20}" \
+    --spring.jpa.show-sql=false \
+    --spring.threads.virtual.enabled="$virtual" \
+    --scheduler.cache.ttl=0s \
+    --scheduler.sweeper.enabled=false \
+    > "target/bench-$label.log" 2>&1 &
+  local pid=$!
+  trap 'kill $pid 2>/dev/null' EXIT
+
+  until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do
+    if ! kill -0 $pid 2>/dev/null; then
+      echo "Application failed to start, see target/bench-$label.log" >&2
+      exit 1
+    fi
+    sleep 1
+  done
+
+  local seed_flag=""
+  if [ "$SEED" = "true" ]; then
+    seed_flag="--seed"
+    SEED=false
+  fi
+  "$JAVA" "$BENCHMARK" --base-url "http://localhost:$PORT" --users "$USERS" \
+    --concurrency "$CONCURRENCY" --warmup "$WARMUP" --duration "$DURATION" \
+    --label "$label" $seed_flag | tee -a target/thread-mode-benchmark.ndjson
+
+  kill $pid
+  wait $pid 2>/dev/null || true
+  trap - EXIT
+}
+
+run_mode platform false
+run_mode virtual true
@@ -0,0 +1,100 @@
+package com.conestoga.scheduler.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Conflict detection over one term of 10k+ exams: the sweep line behind
+// GET /api/exams/conflicts against the pairwise scan it replaced, and the
+// per-write check, which only scans the exams from the day before to the day
+// after the new one. Exams are 1-3 hours on half-hour slots over 15 weeks,
+// so a realistic share of them overlap.
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConflictDetectionBenchmark {
+
+    private static final int TERM_DAYS = 105;
+    private static final int SLOTS_PER_DAY = 24;
+
+    @Param({ "10000", "50000" })
+    private int exams;
+
+    private List<ExamInterval> intervals;
+    private List<ExamInterval> candidates;
+    private ExamInterval probe;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDate termStart = LocalDate.of(2024, 9, 2);
+        intervals = new ArrayList<>(exams);
+        for (int i = 0; i < exams; i++) {
+            LocalDate date = termStart.plusDays(random.nextInt(TERM_DAYS));
+            LocalTime time = LocalTime.of(8, 0).plusMinutes(30L * random.nextInt(SLOTS_PER_DAY));
+            intervals.add(ExamInterval.of((long) i, date, time, 1.0 + random.nextInt(3)));
+        }
+
+        // What the date-range query hands checkNoConflict for an exam mid-term
+        LocalDate day = termStart.plusDays(TERM_DAYS / 2);
+        probe = ExamInterval.of(-1L, day, LocalTime.of(13, 0), 2.0);
+        long from = ExamInterval.toMinutes(day.minusDays(1).atStartOfDay());
+        long to = ExamInterval.toMinutes(day.plusDays(2).atStartOfDay());
+        candidates = new ArrayList<>();
+        for (ExamInterval interval : intervals) {
+            if (interval.getStart() >= from && interval.getStart() < to) {
+                candidates.add(interval);
+            }
+        }
+    }
+
+    @Benchmark
+    public int sweepLine() {
+        return IntervalSweep.overlappingPairs(intervals).size();
+    }
+
+    @Benchmark
+    public int pairwiseScan() {
+        int pairs = 0;
+        for (int i = 0; i < intervals.size(); i++) {
+            for (int j = i + 1; j < intervals.size(); j++) {
+                if (intervals.get(i).overlaps(intervals.get(j))) {
+                    pairs++;
+                }
+            }
+        }
+        return pairs;
+    }
+
+    // Scans every candidate, i.e. the cost when the new exam fits
+
+    @Benchmark
+    public int checkOneWrite() {
+        int overlapping = 0;
+        for (ExamInterval candidate : candidates) {
+            if (probe.overlaps(candidate)) {
+                overlapping++;
+            }
+        }
+        return overlapping;
+    }
+}
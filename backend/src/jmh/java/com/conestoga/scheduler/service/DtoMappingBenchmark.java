@@ -0,0 +1,89 @@
+package com.conestoga.scheduler.service;
+
+import com.conestoga.scheduler.dto.CourseDTO;
+import com.conestoga.scheduler.dto.ExamDTO;
+import com.conestoga.scheduler.entity.Course;
+import com.conestoga.scheduler.entity.Exam;
+import com.conestoga.scheduler.entity.ExamStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Entity -> DTO mapping and JSON serialization of the list endpoints at the
+// sizes a student (tens of exams) and an admin export page (thousands) see.
+// The ObjectMapper is built the way Spring Boot builds it for MVC.
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    @Param({ "20", "200", "2000" })
+    private int size;
+
+    private List<Exam> exams;
+    private List<Course> courses;
+    private List<ExamDTO> examDTOs;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        courses = new ArrayList<>(size);
+        exams = new ArrayList<>(size);
+        LocalDate start = LocalDate.of(2026, 12, 1);
+        for (int i = 0; i < size; i++) {
+            Course course = new Course("PROG" + (8000 + i), "Programming Course " + i,
+                    "Instructor " + (i % 17), "Fall 2026", 1L);
+            course.setId((long) i + 1);
+            courses.add(course);
+
+            Exam exam = new Exam(course, i % 3 == 0 ? "Final" : "Midterm", start.plusDays(i % 14),
+                    LocalTime.of(9 + i % 8, 0), "Room 2A" + (i % 40), 2.0,
+                    i % 4 == 0 ? ExamStatus.COMPLETED : ExamStatus.UPCOMING);
+            exam.setId((long) i + 1);
+            exams.add(exam);
+        }
+        examDTOs = ExamService.convertToDTOs(exams);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public List<ExamDTO> convertExams() {
+        return ExamService.convertToDTOs(exams);
+    }
+
+    @Benchmark
+    public List<CourseDTO> convertCourses() {
+        return CourseService.convertToDTOs(courses);
+    }
+
+    @Benchmark
+    public byte[] serializeExams() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(examDTOs);
+    }
+
+    @Benchmark
+    public byte[] convertAndSerializeExams() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(ExamService.convertToDTOs(exams));
+    }
+}
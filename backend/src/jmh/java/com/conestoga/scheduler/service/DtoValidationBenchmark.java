@@ -0,0 +1,85 @@
+package com.conestoga.scheduler.service;
+
+import com.conestoga.scheduler.dto.CourseDTO;
+import com.conestoga.scheduler.dto.ExamDTO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Bean validation cost per DTO, as paid on every create/update and on each
+// row of a bulk import. Covers a valid DTO and one that fails every rule.
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private ExamDTO validExam;
+    private ExamDTO invalidExam;
+    private CourseDTO validCourse;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+
+        validExam = new ExamDTO();
+        validExam.setCourseId(1L);
+        validExam.setExamType("Final");
+        validExam.setExamDate(LocalDate.of(2026, 12, 10));
+        validExam.setExamTime(LocalTime.of(9, 0));
+        validExam.setLocation("Room 2A101");
+        validExam.setDuration(2.0);
+        validExam.setStatus("upcoming");
+
+        invalidExam = new ExamDTO();
+
+        validCourse = new CourseDTO();
+        validCourse.setCourseCode("PROG8420");
+        validCourse.setCourseName("Programming Principles");
+        validCourse.setInstructor("Instructor");
+        validCourse.setTerm("Fall 2026");
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<ExamDTO>> validateExam() {
+        return validator.validate(validExam);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<ExamDTO>> validateInvalidExam() {
+        return validator.validate(invalidExam);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CourseDTO>> validateCourse() {
+        return validator.validate(validCourse);
+    }
+}
@@ -0,0 +1,53 @@
+package com.conestoga.scheduler.service;
+
+import com.conestoga.scheduler.entity.ExamStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Status parsing and formatting as done per request / per DTO. The
+// toUpperCase/toLowerCase variants are the previous code, kept as baselines
+// for the allocation-free fromLabel/getLabel.
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatusParsingBenchmark {
+
+    @Param({ "upcoming", "COMPLETED" })
+    private String status;
+
+    private ExamStatus value = ExamStatus.COMPLETED;
+
+    @Benchmark
+    public ExamStatus parseWithValueOf() {
+        return ExamStatus.valueOf(status.toUpperCase());
+    }
+
+    @Benchmark
+    public ExamStatus parseWithFromLabel() {
+        return ExamStatus.fromLabel(status);
+    }
+
+    @Benchmark
+    public String formatWithToLowerCase() {
+        return value.name().toLowerCase();
+    }
+
+    @Benchmark
+    public String formatWithLabel() {
+        return value.getLabel();
+    }
+}
@@ -0,0 +1,108 @@
+package com.conestoga.scheduler.loadtest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Layout of a generated dataset. Ids are dense, so the courses and exams of
+// any user can be computed without asking the database:
+//
+//   course id = firstCourseId + userIndex * coursesPerUser + c
+//   exam id   = firstExamId + (userIndex * coursesPerUser + c) * examsPerCourse + e
+//
+// Course codes and names follow from the id the same way, and every
+// generated course is in TERM.
+
+public class Dataset {
+
+    static final String TERM = "Load test";
+
+    final long firstUserId;
+    final int users;
+    final int coursesPerUser;
+    final int examsPerCourse;
+    final long firstCourseId;
+    final long firstExamId;
+    final LocalDate startDate;
+    final int spanDays;
+
+    Dataset(long firstUserId, int users, int coursesPerUser, int examsPerCourse,
+            long firstCourseId, long firstExamId, LocalDate startDate, int spanDays) {
+        this.firstUserId = firstUserId;
+        this.users = users;
+        this.coursesPerUser = coursesPerUser;
+        this.examsPerCourse = examsPerCourse;
+        this.firstCourseId = firstCourseId;
+        this.firstExamId = firstExamId;
+        this.startDate = startDate;
+        this.spanDays = spanDays;
+    }
+
+    int randomUserIndex() {
+        return ThreadLocalRandom.current().nextInt(users);
+    }
+
+    long userId(int userIndex) {
+        return firstUserId + userIndex;
+    }
+
+    long randomCourseId(int userIndex) {
+        return firstCourseId + (long) userIndex * coursesPerUser + ThreadLocalRandom.current().nextInt(coursesPerUser);
+    }
+
+    String courseCode(long courseId) {
+        return "LT" + (1000 + (courseId - firstCourseId) % coursesPerUser);
+    }
+
+    String courseName(long courseId) {
+        return "Load test course " + (courseId - firstCourseId) % coursesPerUser;
+    }
+
+    long randomExamId(int userIndex) {
+        int examsPerUser = coursesPerUser * examsPerCourse;
+        return firstExamId + (long) userIndex * examsPerUser + ThreadLocalRandom.current().nextInt(examsPerUser);
+    }
+
+    long totalExams() {
+        return (long) users * coursesPerUser * examsPerCourse;
+    }
+
+    static Dataset load(Path path) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path)) {
+            properties.load(reader);
+        }
+        return new Dataset(
+                Long.parseLong(properties.getProperty("firstUserId")),
+                Integer.parseInt(properties.getProperty("users")),
+                Integer.parseInt(properties.getProperty("coursesPerUser")),
+                Integer.parseInt(properties.getProperty("examsPerCourse")),
+                Long.parseLong(properties.getProperty("firstCourseId")),
+                Long.parseLong(properties.getProperty("firstExamId")),
+                LocalDate.parse(properties.getProperty("startDate")),
+                Integer.parseInt(properties.getProperty("spanDays")));
+    }
+
+    void save(Path path) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("firstUserId", String.valueOf(firstUserId));
+        properties.setProperty("users", String.valueOf(users));
+        properties.setProperty("coursesPerUser", String.valueOf(coursesPerUser));
+        properties.setProperty("examsPerCourse", String.valueOf(examsPerCourse));
+        properties.setProperty("firstCourseId", String.valueOf(firstCourseId));
+        properties.setProperty("firstExamId", String.valueOf(firstExamId));
+        properties.setProperty("startDate", startDate.toString());
+        properties.setProperty("spanDays", String.valueOf(spanDays));
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (Writer writer = Files.newBufferedWriter(path)) {
+            properties.store(writer, "Load-test dataset");
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.conestoga.scheduler.loadtest;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+
+// Loads synthetic data with server-side INSERT ... SELECT FROM generate_series,
+// so millions of rows are created without shipping them over the wire. Rows
+// get explicit ids above the current maximum; the sequences are moved past
+// them afterwards so the application keeps allocating free ids.
+//
+// Exams are spread over spanDays starting 30 days ago, so the today view and
+// range queries hit data; exams before today are COMPLETED.
+
+class DatasetGenerator {
+
+    private static final int DAYS_BEFORE_TODAY = 30;
+
+    private static final String INSERT_COURSES = """
+            INSERT INTO courses (id, user_id, course_code, course_name, instructor, term, created_at)
+            SELECT ? + g, ? + g / ?, 'LT' || (1000 + g % ?), 'Load test course ' || (g % ?),
+                   'Instructor ' || (g % 97), ?, now()
+            FROM generate_series(?::bigint, ?::bigint) AS g
+            """;
+
+    private static final String INSERT_EXAMS = """
+            INSERT INTO exams (id, course_id, exam_type, exam_date, exam_time, location, duration, status, created_at)
+            SELECT ? + g, ? + g / ?,
+                   CASE WHEN g % ? = 0 THEN 'Final' ELSE 'Quiz' END,
+                   ?::date + (g * 7 % ?)::int,
+                   time '08:00' + (g % 5) * interval '2 hours',
+                   'Room ' || (g % 200), 2.0,
+                   CASE WHEN ?::date + (g * 7 % ?)::int < current_date THEN 'COMPLETED' ELSE 'UPCOMING' END,
+                   now()
+            FROM generate_series(?::bigint, ?::bigint) AS g
+            """;
+
+    private final String jdbcUrl;
+    private final String user;
+    private final String password;
+
+    DatasetGenerator(String jdbcUrl, String user, String password) {
+        this.jdbcUrl = jdbcUrl;
+        this.user = user;
+        this.password = password;
+    }
+
+    Dataset generate(int users, int coursesPerUser, int examsPerCourse, long firstUserId,
+            int spanDays, int batchUsers) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, user, password)) {
+            Dataset dataset = new Dataset(firstUserId, users, coursesPerUser, examsPerCourse,
+                    maxId(connection, "courses") + 1, maxId(connection, "exams") + 1,
+                    LocalDate.now().minusDays(DAYS_BEFORE_TODAY), spanDays);
+            long started = System.nanoTime();
+
+            try (PreparedStatement courses = connection.prepareStatement(INSERT_COURSES);
+                    PreparedStatement exams = connection.prepareStatement(INSERT_EXAMS)) {
+                for (int from = 0; from < users; from += batchUsers) {
+                    int to = Math.min(users, from + batchUsers);
+                    insertCourses(courses, dataset, from, to);
+                    insertExams(exams, dataset, from, to);
+                    System.err.printf("Generated %d/%d users%n", to, users);
+                }
+            }
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SELECT setval('courses_seq', (SELECT MAX(id) FROM courses))");
+                statement.execute("SELECT setval('exams_seq', (SELECT MAX(id) FROM exams))");
+                statement.execute("ANALYZE courses");
+                statement.execute("ANALYZE exams");
+            }
+            System.err.printf("Generated %d users, %d courses, %d exams in %d s%n",
+                    users, (long) users * coursesPerUser, dataset.totalExams(),
+                    (System.nanoTime() - started) / 1_000_000_000L);
+            return dataset;
+        }
+    }
+
+    private void insertCourses(PreparedStatement statement, Dataset dataset, int fromUser, int toUser)
+            throws SQLException {
+        int perUser = dataset.coursesPerUser;
+        statement.setLong(1, dataset.firstCourseId);
+        statement.setLong(2, dataset.firstUserId);
+        statement.setInt(3, perUser);
+        statement.setInt(4, perUser);
+        statement.setInt(5, perUser);
+        statement.setString(6, Dataset.TERM);
+        statement.setLong(7, (long) fromUser * perUser);
+        statement.setLong(8, (long) toUser * perUser - 1);
+        statement.executeUpdate();
+    }
+
+    private void insertExams(PreparedStatement statement, Dataset dataset, int fromUser, int toUser)
+            throws SQLException {
+        long perUser = (long) dataset.coursesPerUser * dataset.examsPerCourse;
+        statement.setLong(1, dataset.firstExamId);
+        statement.setLong(2, dataset.firstCourseId);
+        statement.setInt(3, dataset.examsPerCourse);
+        statement.setInt(4, dataset.examsPerCourse);
+        statement.setObject(5, dataset.startDate);
+        statement.setInt(6, dataset.spanDays);
+        statement.setObject(7, dataset.startDate);
+        statement.setInt(8, dataset.spanDays);
+        statement.setLong(9, fromUser * perUser);
+        statement.setLong(10, toUser * perUser - 1);
+        statement.executeUpdate();
+    }
+
+    private long maxId(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+                ResultSet rows = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            rows.next();
+            return rows.getLong(1);
+        }
+    }
+}
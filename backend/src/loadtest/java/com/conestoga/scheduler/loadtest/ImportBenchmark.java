@@ -0,0 +1,174 @@
+package com.conestoga.scheduler.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Exam import throughput: the same number of rows created one POST /api/exams
+// at a time (one transaction and one INSERT per row) and through
+// POST /api/exams/bulk (JDBC-batched INSERTs, flushed per chunk). Rows go to
+// a scratch course of a user outside the generated dataset, which is deleted
+// again afterwards so the dataset keeps its shape.
+
+class ImportBenchmark {
+
+    private static final int SLOTS_PER_DAY = 10;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final String baseUrl;
+    private final long userId;
+    private final int rows;
+    private final int batchRows;
+
+    ImportBenchmark(Dataset dataset, String baseUrl, int rows, int batchRows) {
+        this.baseUrl = baseUrl;
+        this.userId = dataset.userId(dataset.users);
+        this.rows = rows;
+        this.batchRows = batchRows;
+    }
+
+    Map<String, Object> run(String label) throws IOException, InterruptedException {
+        long courseId = createCourse();
+        try {
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("label", label);
+            report.put("rows", rows);
+            report.put("batchRows", batchRows);
+            report.put("perRow", measure("POST", "/api/exams", () -> importPerRow(courseId, 0)));
+            report.put("batched", measure("POST", "/api/exams/bulk", () -> importBatched(courseId, rows)));
+            return report;
+        } finally {
+            send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/courses/" + courseId + "?userId=" + userId))
+                    .DELETE().build(), 204);
+        }
+    }
+
+    static void printSummary(Map<String, Object> report, PrintStream out) {
+        out.printf("%-10s %8s %9s %10s %11s%n", "mode", "rows", "seconds", "rows/s", "stmts/row");
+        for (String mode : new String[] { "perRow", "batched" }) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> result = (Map<String, Object>) report.get(mode);
+            out.printf("%-10s %8d %9.2f %10.1f %11.2f%n", mode, report.get("rows"),
+                    result.get("seconds"), result.get("rowsPerSecond"), result.get("statementsPerRow"));
+        }
+    }
+
+    static void write(Map<String, Object> report, Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), report);
+    }
+
+    private void importPerRow(long courseId, int firstSlot) throws IOException, InterruptedException {
+        for (int i = 0; i < rows; i++) {
+            send(post("/api/exams?userId=" + userId, exam(courseId, firstSlot + i)), 201);
+        }
+    }
+
+    private void importBatched(long courseId, int firstSlot) throws IOException, InterruptedException {
+        for (int from = 0; from < rows; from += batchRows) {
+            StringBuilder body = new StringBuilder("[");
+            for (int i = from; i < Math.min(from + batchRows, rows); i++) {
+                body.append(i > from ? "," : "").append(exam(courseId, firstSlot + i));
+            }
+            send(post("/api/exams/bulk?userId=" + userId, body.append(']').toString()), 201);
+        }
+    }
+
+    // One-hour exams on consecutive hourly slots, so no row conflicts with another
+
+    private String exam(long courseId, int slot) {
+        LocalDate date = LocalDate.now().plusDays(1 + slot / SLOTS_PER_DAY);
+        LocalTime time = LocalTime.of(8 + slot % SLOTS_PER_DAY, 0);
+        return "{\"courseId\":" + courseId + ",\"examType\":\"Quiz\",\"examDate\":\"" + date
+                + "\",\"examTime\":\"" + time + "\",\"location\":\"Import benchmark\",\"duration\":1.0,"
+                + "\"status\":\"upcoming\"}";
+    }
+
+    private long createCourse() throws IOException, InterruptedException {
+        String body = "{\"courseCode\":\"IMPORT\",\"courseName\":\"Import benchmark\","
+                + "\"instructor\":\"Load test\",\"term\":\"Import benchmark\"}";
+        return objectMapper.readTree(send(post("/api/courses?userId=" + userId, body), 201)).path("id").asLong();
+    }
+
+    private Map<String, Object> measure(String method, String uri, Step step) throws IOException, InterruptedException {
+        long[] before = statements(method, uri);
+        long started = System.nanoTime();
+        step.run();
+        double seconds = (System.nanoTime() - started) / 1e9;
+        long[] after = statements(method, uri);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("requests", after[0] - before[0]);
+        result.put("seconds", round(seconds));
+        result.put("rowsPerSecond", round(rows / seconds));
+        result.put("statementsPerRow", round((double) (after[1] - before[1]) / rows));
+        return result;
+    }
+
+    // {requests, statements} from the server's scheduler.http.db.statements metric
+
+    private long[] statements(String method, String uri) throws IOException, InterruptedException {
+        String url = baseUrl + "/actuator/metrics/scheduler.http.db.statements"
+                + "?tag=method:" + method + "&tag=uri:" + URLEncoder.encode(uri, StandardCharsets.UTF_8);
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(url)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        long[] counts = new long[2];
+        if (response.statusCode() == 200) {
+            for (JsonNode measurement : objectMapper.readTree(response.body()).path("measurements")) {
+                switch (measurement.path("statistic").asText()) {
+                    case "COUNT" -> counts[0] = measurement.path("value").asLong();
+                    case "TOTAL" -> counts[1] = measurement.path("value").asLong();
+                    default -> {
+                    }
+                }
+            }
+        }
+        return counts;
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private String send(HttpRequest request, int expectedStatus) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != expectedStatus) {
+            throw new IllegalStateException(request.method() + " " + request.uri() + " returned "
+                    + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private interface Step {
+        void run() throws IOException, InterruptedException;
+    }
+}
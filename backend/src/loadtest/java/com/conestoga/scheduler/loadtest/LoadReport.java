@@ -0,0 +1,136 @@
+package com.conestoga.scheduler.loadtest;
+
+import com.conestoga.scheduler.loadtest.Replay.StatementSnapshot;
+import com.conestoga.scheduler.loadtest.Workload.Endpoint;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Machine-readable result of one replay. Keys are written in a fixed order
+// and the latency histogram uses fixed power-of-two millisecond buckets, so
+// reports from two builds can be compared with a plain diff or jq.
+
+class LoadReport {
+
+    private static final double[] PERCENTILES = { 50, 90, 95, 99, 99.9 };
+    private static final long FIRST_BUCKET_MICROS = 1000;
+
+    private final Map<String, Object> root = new LinkedHashMap<>();
+    private final Map<String, Object> endpoints = new LinkedHashMap<>();
+    private final Duration duration;
+    private long totalRequests;
+    private long totalErrors;
+
+    LoadReport(String label, Instant startedAt, Dataset dataset, int concurrency, Duration warmup, Duration duration) {
+        this.duration = duration;
+        root.put("label", label);
+        root.put("startedAt", startedAt.toString());
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("concurrency", concurrency);
+        config.put("warmupSeconds", warmup.toSeconds());
+        config.put("durationSeconds", duration.toSeconds());
+        root.put("config", config);
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("users", dataset.users);
+        data.put("coursesPerUser", dataset.coursesPerUser);
+        data.put("examsPerCourse", dataset.examsPerCourse);
+        data.put("exams", dataset.totalExams());
+        root.put("dataset", data);
+        root.put("endpoints", endpoints);
+    }
+
+    void addEndpoint(Endpoint endpoint, Histogram latencies, long errors, StatementSnapshot statements) {
+        long requests = latencies.getTotalCount();
+        totalRequests += requests;
+        totalErrors += errors;
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("method", endpoint.method);
+        result.put("uri", endpoint.uriPattern);
+        result.put("requests", requests);
+        result.put("errors", errors);
+        result.put("throughput", round(requests / seconds()));
+
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("mean", round(latencies.getMean() / 1000));
+        for (double percentile : PERCENTILES) {
+            latency.put("p" + String.valueOf(percentile).replace(".0", "").replace(".", ""),
+                    round(latencies.getValueAtPercentile(percentile) / 1000.0));
+        }
+        latency.put("max", round(latencies.getMaxValue() / 1000.0));
+        result.put("latencyMs", latency);
+        result.put("histogramMs", buckets(latencies));
+
+        Map<String, Object> db = new LinkedHashMap<>();
+        db.put("requests", statements.requests());
+        db.put("statements", statements.statements());
+        db.put("perRequest", statements.requests() == 0 ? 0 : round((double) statements.statements() / statements.requests()));
+        result.put("dbStatements", db);
+
+        endpoints.put(endpoint.key, result);
+    }
+
+    void write(Path path) throws IOException {
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("requests", totalRequests);
+        totals.put("errors", totalErrors);
+        totals.put("throughput", round(totalRequests / seconds()));
+        root.put("totals", totals);
+
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), root);
+    }
+
+    @SuppressWarnings("unchecked")
+    void printSummary(PrintStream out) {
+        out.printf("%-14s %9s %7s %9s %9s %9s %9s %8s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms", "stmts");
+        for (Map.Entry<String, Object> entry : endpoints.entrySet()) {
+            Map<String, Object> result = (Map<String, Object>) entry.getValue();
+            Map<String, Object> latency = (Map<String, Object>) result.get("latencyMs");
+            Map<String, Object> db = (Map<String, Object>) result.get("dbStatements");
+            out.printf("%-14s %9d %7d %9.1f %9.2f %9.2f %9.2f %8.2f%n", entry.getKey(),
+                    result.get("requests"), result.get("errors"), result.get("throughput"),
+                    latency.get("p50"), latency.get("p99"), latency.get("max"),
+                    ((Number) db.get("perRequest")).doubleValue());
+        }
+    }
+
+    // Counts per bucket [previous limit, upToMs), limits doubling from 1 ms up to the maximum
+
+    private List<Map<String, Object>> buckets(Histogram latencies) {
+        List<Map<String, Object>> buckets = new ArrayList<>();
+        long lower = 0;
+        for (long upper = FIRST_BUCKET_MICROS; lower <= latencies.getMaxValue(); upper *= 2) {
+            Map<String, Object> bucket = new LinkedHashMap<>();
+            bucket.put("upToMs", upper / 1000);
+            bucket.put("count", latencies.getCountBetweenValues(lower, upper - 1));
+            buckets.add(bucket);
+            lower = upper;
+        }
+        return buckets;
+    }
+
+    private double seconds() {
+        return duration.toNanos() / 1e9;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,141 @@
+package com.conestoga.scheduler.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+// End-to-end load test for a running backend and its PostgreSQL database.
+//
+//   generate  Bulk-loads synthetic users, courses and exams straight into the
+//             database and writes a dataset manifest describing the ids.
+//   replay    Replays a weighted mix of exam/course calls against the API for
+//             the users in the manifest and writes a JSON report.
+//   explain   EXPLAINs every repository query against the generated data and
+//             exits non-zero on a sequential scan of a large table.
+//   import    Times the same number of exams created one request per row and
+//             through the bulk import endpoint.
+//   search    Times course search through the old unbounded code-only query
+//             and the indexed search paths, straight against the database.
+//
+//   mvn -Ploadtest test-compile exec:exec -Dloadtest.args="generate --users 100000 --exams-per-course 8"
+//   mvn -Ploadtest test-compile exec:exec -Dloadtest.args="replay --concurrency 200 --duration 2m --label main"
+//   mvn -Ploadtest test-compile exec:exec -Dloadtest.args="explain"
+//   mvn -Ploadtest test-compile exec:exec -Dloadtest.args="import --rows 5000 --label main"
+//   mvn -Ploadtest test-compile exec:exec -Dloadtest.args="search --label main"
+//
+// Options (defaults in brackets):
+//   --jdbc-url [jdbc:postgresql://localhost:5432/conestoga_scheduler] --db-user [postgres] --db-password []
+//   --manifest [target/loadtest/dataset.properties]
+//   generate: --users [1000] --courses-per-user [6] --exams-per-course [8] --first-user-id [1000000]
+//             --span-days [90] --batch-users [5000]
+//   replay:   --base-url [http://localhost:8081] --concurrency [100] --warmup [15s] --duration [60s]
+//             --mix [exams.list=25,courses.list=15,exams.today=25,exams.range=15,exams.page=10,exams.status=10]
+//                   (also exams.query, exams.free, courses.search, courses.update)
+//             --label [run] --report [target/loadtest/report-<label>.json]
+//   explain:  --min-rows [10000]
+//   import:   --base-url [http://localhost:8081] --rows [2000] --batch-rows [1000]
+//             --label [run] --report [target/loadtest/import-<label>.json]
+//   search:   --iterations [20] --label [run] --report [target/loadtest/search-<label>.json]
+
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("Usage: LoadTest generate|replay|explain|import|search [--option value ...]");
+        }
+        Map<String, String> options = parseOptions(args);
+        Path manifest = Path.of(options.getOrDefault("manifest", "target/loadtest/dataset.properties"));
+
+        switch (args[0]) {
+            case "generate" -> {
+                DatasetGenerator generator = new DatasetGenerator(
+                        options.getOrDefault("jdbc-url", "jdbc:postgresql://localhost:5432/conestoga_scheduler"),
+                        options.getOrDefault("db-user", "postgres"),
+                        options.getOrDefault("db-password", ""));
+                Dataset dataset = generator.generate(
+                        intOption(options, "users", 1000),
+                        intOption(options, "courses-per-user", 6),
+                        intOption(options, "exams-per-course", 8),
+                        Long.parseLong(options.getOrDefault("first-user-id", "1000000")),
+                        intOption(options, "span-days", 90),
+                        intOption(options, "batch-users", 5000));
+                dataset.save(manifest);
+                System.err.println("Wrote " + manifest);
+            }
+            case "replay" -> {
+                String label = options.getOrDefault("label", "run");
+                Replay replay = new Replay(
+                        Dataset.load(manifest),
+                        options.getOrDefault("base-url", "http://localhost:8081"),
+                        Workload.parse(options.getOrDefault("mix", Workload.DEFAULT_MIX)),
+                        intOption(options, "concurrency", 100),
+                        durationOption(options, "warmup", "15s"),
+                        durationOption(options, "duration", "60s"));
+                LoadReport report = replay.run(label);
+                Path output = Path.of(options.getOrDefault("report", "target/loadtest/report-" + label + ".json"));
+                report.write(output);
+                report.printSummary(System.err);
+                System.err.println("Wrote " + output);
+            }
+            case "explain" -> {
+                PlanCheck planCheck = new PlanCheck(
+                        Dataset.load(manifest),
+                        options.getOrDefault("jdbc-url", "jdbc:postgresql://localhost:5432/conestoga_scheduler"),
+                        options.getOrDefault("db-user", "postgres"),
+                        options.getOrDefault("db-password", ""),
+                        Long.parseLong(options.getOrDefault("min-rows", "10000")));
+                if (planCheck.run() > 0) {
+                    System.exit(1);
+                }
+            }
+            case "import" -> {
+                String label = options.getOrDefault("label", "run");
+                ImportBenchmark benchmark = new ImportBenchmark(
+                        Dataset.load(manifest),
+                        options.getOrDefault("base-url", "http://localhost:8081"),
+                        intOption(options, "rows", 2000),
+                        intOption(options, "batch-rows", 1000));
+                Map<String, Object> report = benchmark.run(label);
+                Path output = Path.of(options.getOrDefault("report", "target/loadtest/import-" + label + ".json"));
+                ImportBenchmark.write(report, output);
+                ImportBenchmark.printSummary(report, System.err);
+                System.err.println("Wrote " + output);
+            }
+            case "search" -> {
+                String label = options.getOrDefault("label", "run");
+                SearchBenchmark benchmark = new SearchBenchmark(
+                        options.getOrDefault("jdbc-url", "jdbc:postgresql://localhost:5432/conestoga_scheduler"),
+                        options.getOrDefault("db-user", "postgres"),
+                        options.getOrDefault("db-password", ""),
+                        intOption(options, "iterations", 20));
+                Map<String, Object> report = benchmark.run(label);
+                Path output = Path.of(options.getOrDefault("report", "target/loadtest/search-" + label + ".json"));
+                SearchBenchmark.write(report, output);
+                SearchBenchmark.printSummary(report, System.err);
+                System.err.println("Wrote " + output);
+            }
+            default -> throw new IllegalArgumentException("Unknown command: " + args[0]);
+        }
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 1; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --option value at: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+
+    private static int intOption(Map<String, String> options, String name, int defaultValue) {
+        String value = options.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    private static Duration durationOption(Map<String, String> options, String name, String defaultValue) {
+        return Duration.parse("PT" + options.getOrDefault(name, defaultValue).toUpperCase());
+    }
+}
@@ -0,0 +1,334 @@
+package com.conestoga.scheduler.loadtest;
+
+import com.conestoga.scheduler.ConestogaSchedulerApplication;
+import com.conestoga.scheduler.entity.ExamStatus;
+import com.conestoga.scheduler.repository.CourseRepository;
+import com.conestoga.scheduler.repository.ExamFilter;
+import com.conestoga.scheduler.repository.ExamQueryRepository;
+import com.conestoga.scheduler.repository.ExamRepository;
+import com.conestoga.scheduler.repository.ScheduleVersionRepository;
+import com.conestoga.scheduler.repository.SyncTombstoneRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// Runs every declared repository query once against a seeded database, with
+// parameters for one dataset user, captures the SQL Hibernate sends and
+// EXPLAINs it. Fails when a plan sequentially scans a table holding at least
+// minRows rows, or when a repository method has no probe here.
+//
+// Writes are probed inside a rolled-back transaction; EXPLAIN never executes.
+// Parameters are chosen to be selective (one user, a missing term, a rare
+// search string), since that is the shape the indexes are built for.
+
+class PlanCheck {
+
+    private static final List<Class<?>> REPOSITORIES =
+            List.of(ExamRepository.class, ExamQueryRepository.class, CourseRepository.class,
+                    ScheduleVersionRepository.class, SyncTombstoneRepository.class);
+
+    // Scans the planner chooses on purpose. The sweeper joins at most one chunk
+    // of ids to courses, which a hash join over courses does more cheaply than
+    // one index probe per row.
+    private static final Map<String, String> ALLOWED_SEQ_SCANS =
+            Map.of("ExamRepository.completeFinishedExams", "courses");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Dataset dataset;
+    private final String jdbcUrl;
+    private final String user;
+    private final String password;
+    private final long minRows;
+
+    private List<QueryInfo> captured;
+
+    PlanCheck(Dataset dataset, String jdbcUrl, String user, String password, long minRows) {
+        this.dataset = dataset;
+        this.jdbcUrl = jdbcUrl;
+        this.user = user;
+        this.password = password;
+        this.minRows = minRows;
+    }
+
+    // Returns the number of problems found
+
+    int run() throws Exception {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("spring.datasource.url", jdbcUrl);
+        properties.put("spring.datasource.username", user);
+        properties.put("spring.datasource.password", password);
+        properties.put("scheduler.sweeper.enabled", "false");
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ConestogaSchedulerApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(properties)
+                .run();
+                Connection connection = DriverManager.getConnection(jdbcUrl, user, password)) {
+            DataSource dataSource = context.getBean(DataSource.class);
+            dataSource.unwrap(ProxyDataSource.class).getProxyConfig().getQueryListener()
+                    .addListener(new CapturingListener());
+
+            Map<String, Runnable> probes = probes(context.getBean(ExamRepository.class),
+                    context.getBean(CourseRepository.class), context.getBean(ScheduleVersionRepository.class),
+                    context.getBean(SyncTombstoneRepository.class));
+            TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+
+            int problems = 0;
+            for (Class<?> repository : REPOSITORIES) {
+                for (String method : declaredMethods(repository)) {
+                    String key = repository.getSimpleName() + "." + method;
+                    if (!probes.containsKey(key)) {
+                        System.err.println("MISSING " + key + ": add a probe to PlanCheck");
+                        problems++;
+                    }
+                }
+            }
+
+            for (Map.Entry<String, Runnable> probe : probes.entrySet()) {
+                captured = new ArrayList<>();
+                transactionTemplate.executeWithoutResult(status -> {
+                    status.setRollbackOnly();
+                    probe.getValue().run();
+                });
+                for (QueryInfo query : captured) {
+                    problems += check(connection, probe.getKey(), query);
+                }
+            }
+            System.err.println(problems == 0 ? "All repository query plans OK" : problems + " plan problem(s)");
+            return problems;
+        }
+    }
+
+    private Map<String, Runnable> probes(ExamRepository exams, CourseRepository courses,
+            ScheduleVersionRepository versions, SyncTombstoneRepository tombstones) {
+        int userIndex = dataset.users / 2;
+        long userId = dataset.userId(userIndex);
+        long courseId = dataset.firstCourseId + (long) userIndex * dataset.coursesPerUser;
+        long examId = dataset.firstExamId + (long) userIndex * dataset.coursesPerUser * dataset.examsPerCourse;
+        LocalDate today = LocalDate.now();
+        String missingTerm = "No such term";
+
+        Map<String, Runnable> probes = new LinkedHashMap<>();
+        probes.put("ExamRepository.findByCourseUserId", () -> exams.findByCourseUserId(userId));
+        probes.put("ExamRepository.findByCourseUserIdAndStatus",
+                () -> exams.findByCourseUserIdAndStatus(userId, ExamStatus.UPCOMING));
+        probes.put("ExamRepository.findByCourseUserIdAndExamDateBetween",
+                () -> exams.findByCourseUserIdAndExamDateBetween(userId, today, today.plusDays(14)));
+        probes.put("ExamRepository.findByCourseUserIdAndCourseTerm",
+                () -> exams.findByCourseUserIdAndCourseTerm(userId, "Load test"));
+        probes.put("ExamRepository.findFirstPageByCourseUserId",
+                () -> exams.findFirstPageByCourseUserId(userId, PageRequest.ofSize(20)));
+        probes.put("ExamRepository.findPageByCourseUserIdAfter",
+                () -> exams.findPageByCourseUserIdAfter(userId, today, LocalTime.NOON, examId, PageRequest.ofSize(20)));
+        probes.put("ExamRepository.streamByCourseUserId", () -> {
+            try (Stream<?> rows = exams.streamByCourseUserId(userId)) {
+                rows.count();
+            }
+        });
+        probes.put("ExamRepository.streamByCourseTerm", () -> {
+            try (Stream<?> rows = exams.streamByCourseTerm(missingTerm)) {
+                rows.count();
+            }
+        });
+        probes.put("ExamRepository.updateStatusForUser",
+                () -> exams.updateStatusForUser(List.of(examId), userId, ExamStatus.COMPLETED));
+        probes.put("ExamRepository.updateByIdForUser", () -> exams.updateByIdForUser(examId, userId, null,
+                "Quiz", today, LocalTime.NOON, "Room 1", 1.0, ExamStatus.UPCOMING.name()));
+        probes.put("ExamRepository.updateStatusByIdForUser",
+                () -> exams.updateStatusByIdForUser(examId, userId, null, ExamStatus.COMPLETED.name()));
+        probes.put("ExamRepository.deleteByIdForUser", () -> exams.deleteByIdForUser(examId, userId, null));
+        probes.put("ExamRepository.deleteByCourseIdForUser",
+                () -> exams.deleteByCourseIdForUser(courseId, userId, null));
+        probes.put("ExamRepository.deleteByCourseIds", () -> exams.deleteByCourseIds(List.of(courseId)));
+        probes.put("ExamRepository.findOwnerIdById", () -> exams.findOwnerIdById(examId));
+        probes.put("ExamRepository.completeFinishedExams",
+                () -> exams.completeFinishedExams(today, LocalDateTime.now(), 1000));
+        probes.put("ExamRepository.tryAdvisoryTransactionLock", () -> exams.tryAdvisoryTransactionLock(1L));
+        probes.put("ExamRepository.advisoryTransactionLock", () -> exams.advisoryTransactionLock(1, 1));
+        probes.put("ExamRepository.findCourseIdsByTermAndExamType",
+                () -> exams.findCourseIdsByTermAndExamType(missingTerm, "Final"));
+        probes.put("ExamRepository.findByCourseId", () -> exams.findByCourseId(courseId));
+        probes.put("ExamRepository.findByIdWithCourse", () -> exams.findByIdWithCourse(examId));
+        probes.put("ExamRepository.summarizeByCourseUserId", () -> exams.summarizeByCourseUserId(userId));
+        probes.put("ExamRepository.findTodaysExams", () -> exams.findTodaysExams(userId, today));
+        probes.put("ExamRepository.findChangedByCourseUserId",
+                () -> exams.findChangedByCourseUserId(userId, tombstones.currentSyncVersion()));
+
+        // One probe per filter combination of the dynamic query; each must be one statement
+        probes.put("ExamQueryRepository.query", () -> exams.query(examFilter(userId, filter -> {
+            filter.setStatus(ExamStatus.UPCOMING);
+            filter.setStartDate(today);
+            filter.setEndDate(today.plusDays(30));
+            filter.setTerm("Load test");
+            filter.setCourseIds(List.of(courseId, courseId + 1));
+            filter.setExamType("Final");
+            filter.setLocation("Room 0");
+        })));
+        probes.put("ExamQueryRepository.query[status]",
+                () -> exams.query(examFilter(userId, filter -> filter.setStatus(ExamStatus.COMPLETED))));
+        probes.put("ExamQueryRepository.query[dates]", () -> exams.query(examFilter(userId, filter -> {
+            filter.setStartDate(today);
+            filter.setEndDate(today.plusDays(14));
+        })));
+        probes.put("ExamQueryRepository.query[term,sort]", () -> exams.query(examFilter(userId, filter -> {
+            filter.setTerm("Load test");
+            filter.setSort(Sort.by(Sort.Order.asc("courseCode"), Sort.Order.desc("examDate")));
+        })));
+        probes.put("ExamQueryRepository.query[courseIds]",
+                () -> exams.query(examFilter(userId, filter -> filter.setCourseIds(List.of(courseId)))));
+        probes.put("ExamQueryRepository.query[examType,location]", () -> exams.query(examFilter(userId, filter -> {
+            filter.setExamType("Quiz");
+            filter.setLocation("Room 1");
+        })));
+
+        probes.put("CourseRepository.findByUserId", () -> courses.findByUserId(userId));
+        probes.put("CourseRepository.findByUserIdAndTerm", () -> courses.findByUserIdAndTerm(userId, "Load test"));
+        probes.put("CourseRepository.findByTerm", () -> courses.findByTerm(missingTerm));
+        probes.put("CourseRepository.findChangedByUserId",
+                () -> courses.findChangedByUserId(userId, tombstones.currentSyncVersion()));
+        probes.put("CourseRepository.updateByIdForUser", () -> courses.updateByIdForUser(courseId, userId, null,
+                "LT1000", "Load test course", "Instructor 1", "Load test"));
+        // A stale version, so the delete matches nothing and the course's exams don't block it
+        probes.put("CourseRepository.deleteByIdForUser", () -> courses.deleteByIdForUser(courseId, userId, -1L));
+        probes.put("CourseRepository.findOwnedIds", () -> courses.findOwnedIds(List.of(courseId), userId));
+        probes.put("CourseRepository.findIdsByUserIdAndTerm",
+                () -> courses.findIdsByUserIdAndTerm(userId, "Load test", PageRequest.ofSize(500)));
+        probes.put("CourseRepository.findIdsAndUserIdsByTerm",
+                () -> courses.findIdsAndUserIdsByTerm(missingTerm, PageRequest.ofSize(500)));
+        // The exams go first, as in CourseService, or the foreign key rejects the delete
+        probes.put("CourseRepository.deleteByIds", () -> {
+            exams.deleteByCourseIds(List.of(courseId));
+            courses.deleteByIds(List.of(courseId));
+        });
+        probes.put("CourseRepository.findOwnerIdById", () -> courses.findOwnerIdById(courseId));
+        probes.put("CourseRepository.findRolloverConflictUserIds",
+                () -> courses.findRolloverConflictUserIds(List.of(userId), "Load test", missingTerm, 364));
+        probes.put("CourseRepository.rolloverTerm",
+                () -> courses.rolloverTerm(List.of(userId), "Load test", missingTerm, 364));
+        probes.put("CourseRepository.findUserIdsByTermAfter",
+                () -> courses.findUserIdsByTermAfter(missingTerm, userId, PageRequest.ofSize(500)));
+        probes.put("CourseRepository.countUsersByTerm", () -> courses.countUsersByTerm(missingTerm));
+        probes.put("CourseRepository.findFirstPageByUserId",
+                () -> courses.findFirstPageByUserId(userId, PageRequest.ofSize(20)));
+        probes.put("CourseRepository.findPageByUserIdAfter",
+                () -> courses.findPageByUserIdAfter(userId, "Load test", "LT1000", courseId, PageRequest.ofSize(20)));
+        probes.put("CourseRepository.searchByText", () -> courses.searchByText("%zqxj%", "zqxj%", 20));
+        probes.put("CourseRepository.searchByPrefix", () -> courses.searchByPrefix("zq%", 20));
+
+        probes.put("ScheduleVersionRepository.bump", () -> versions.bump(userId, LocalDateTime.now()));
+
+        probes.put("SyncTombstoneRepository.findByUserIdSince",
+                () -> tombstones.findByUserIdSince(userId, tombstones.currentSyncVersion()));
+        probes.put("SyncTombstoneRepository.currentSyncVersion", tombstones::currentSyncVersion);
+        probes.put("SyncTombstoneRepository.findCompactionHorizon", tombstones::findCompactionHorizon);
+        probes.put("SyncTombstoneRepository.compact",
+                () -> tombstones.compact(LocalDateTime.now().minusDays(30), 5000));
+        return probes;
+    }
+
+    private static ExamFilter examFilter(long userId, Consumer<ExamFilter> filters) {
+        ExamFilter filter = new ExamFilter(userId, 100);
+        filters.accept(filter);
+        return filter;
+    }
+
+    private int check(Connection connection, String probe, QueryInfo query) throws Exception {
+        JsonNode plan;
+        try (PreparedStatement explain = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + query.getQuery())) {
+            if (!query.getParametersList().isEmpty()) {
+                for (ParameterSetOperation operation : query.getParametersList().get(0)) {
+                    operation.getMethod().invoke(explain, operation.getArgs());
+                }
+            }
+            try (ResultSet rows = explain.executeQuery()) {
+                rows.next();
+                plan = objectMapper.readTree(rows.getString(1)).get(0).get("Plan");
+            }
+        }
+
+        List<String> seqScans = new ArrayList<>();
+        collectSeqScans(connection, plan, seqScans, ALLOWED_SEQ_SCANS.get(probe));
+        if (seqScans.isEmpty()) {
+            System.err.printf("OK      %-55s %s%n", probe, plan.path("Node Type").asText());
+            return 0;
+        }
+        System.err.printf("SEQSCAN %-55s %s%n        %s%n", probe, seqScans, query.getQuery());
+        return 1;
+    }
+
+    private void collectSeqScans(Connection connection, JsonNode node, List<String> seqScans, String allowed)
+            throws SQLException {
+        String table = node.path("Relation Name").asText();
+        if (node.path("Node Type").asText().endsWith("Seq Scan") && !table.equals(allowed)) {
+            long rows = estimatedRows(connection, table);
+            if (rows >= minRows) {
+                seqScans.add(table + " (~" + rows + " rows)");
+            }
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectSeqScans(connection, child, seqScans, allowed);
+        }
+    }
+
+    private long estimatedRows(Connection connection, String table) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT reltuples::bigint FROM pg_class WHERE relname = ?")) {
+            statement.setString(1, table);
+            try (ResultSet rows = statement.executeQuery()) {
+                return rows.next() ? rows.getLong(1) : 0;
+            }
+        }
+    }
+
+    private static TreeSet<String> declaredMethods(Class<?> repository) {
+        TreeSet<String> names = new TreeSet<>();
+        for (Method method : repository.getDeclaredMethods()) {
+            if (!method.isSynthetic() && !method.isDefault()) {
+                names.add(method.getName());
+            }
+        }
+        return names;
+    }
+
+    private class CapturingListener implements QueryExecutionListener {
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            if (captured != null) {
+                captured.addAll(queryInfoList);
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.conestoga.scheduler.loadtest;
+
+import com.conestoga.scheduler.loadtest.Workload.Endpoint;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Closed-loop replay: every client thread sends a request drawn from the mix,
+// waits for the response and sends the next one. Latencies are recorded in
+// microseconds per endpoint once the warm-up is over.
+//
+// Statement counts come from the server's scheduler.http.db.statements
+// metric, read before and after the measured window.
+
+class Replay {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Dataset dataset;
+    private final String baseUrl;
+    private final Workload workload;
+    private final int concurrency;
+    private final Duration warmup;
+    private final Duration duration;
+    private final Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+
+    Replay(Dataset dataset, String baseUrl, Workload workload, int concurrency, Duration warmup, Duration duration) {
+        this.dataset = dataset;
+        this.baseUrl = baseUrl;
+        this.workload = workload;
+        this.concurrency = concurrency;
+        this.warmup = warmup;
+        this.duration = duration;
+        for (Endpoint endpoint : workload.endpoints) {
+            stats.put(endpoint, new EndpointStats());
+        }
+    }
+
+    LoadReport run(String label) throws Exception {
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        CountDownLatch done = new CountDownLatch(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    drive(measureFrom, end);
+                } finally {
+                    done.countDown();
+                }
+            }, "loadtest-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        Thread.sleep(warmup.toMillis());
+        Map<Endpoint, StatementSnapshot> before = statementSnapshots();
+        Instant startedAt = Instant.now();
+        done.await();
+        Map<Endpoint, StatementSnapshot> after = statementSnapshots();
+
+        LoadReport report = new LoadReport(label, startedAt, dataset, concurrency, warmup, duration);
+        for (Map.Entry<Endpoint, EndpointStats> entry : stats.entrySet()) {
+            Endpoint endpoint = entry.getKey();
+            report.addEndpoint(endpoint, entry.getValue().latencies, entry.getValue().errors.sum(),
+                    after.get(endpoint).minus(before.get(endpoint)));
+        }
+        return report;
+    }
+
+    private void drive(long measureFrom, long end) {
+        long started;
+        while ((started = System.nanoTime()) < end) {
+            Endpoint endpoint = workload.next();
+            boolean failed;
+            try {
+                HttpResponse<Void> response = client.send(Workload.request(endpoint, baseUrl, dataset),
+                        HttpResponse.BodyHandlers.discarding());
+                failed = response.statusCode() >= 400;
+            } catch (IOException e) {
+                failed = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (started >= measureFrom) {
+                EndpointStats endpointStats = stats.get(endpoint);
+                long micros = (System.nanoTime() - started) / 1000;
+                endpointStats.latencies.recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+                if (failed) {
+                    endpointStats.errors.increment();
+                }
+            }
+        }
+    }
+
+    private Map<Endpoint, StatementSnapshot> statementSnapshots() throws IOException, InterruptedException {
+        Map<Endpoint, StatementSnapshot> snapshots = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : workload.endpoints) {
+            snapshots.put(endpoint, statementSnapshot(endpoint));
+        }
+        return snapshots;
+    }
+
+    private StatementSnapshot statementSnapshot(Endpoint endpoint) throws IOException, InterruptedException {
+        String url = baseUrl + "/actuator/metrics/scheduler.http.db.statements"
+                + "?tag=method:" + endpoint.method
+                + "&tag=uri:" + URLEncoder.encode(endpoint.uriPattern, StandardCharsets.UTF_8);
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(url)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            // The meter only exists once the endpoint has been called
+            return new StatementSnapshot(0, 0);
+        }
+        double count = 0;
+        double total = 0;
+        for (JsonNode measurement : objectMapper.readTree(response.body()).path("measurements")) {
+            switch (measurement.path("statistic").asText()) {
+                case "COUNT" -> count = measurement.path("value").asDouble();
+                case "TOTAL" -> total = measurement.path("value").asDouble();
+                default -> {
+                }
+            }
+        }
+        return new StatementSnapshot((long) count, (long) total);
+    }
+
+    private static class EndpointStats {
+        final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        final LongAdder errors = new LongAdder();
+    }
+
+    record StatementSnapshot(long requests, long statements) {
+
+        StatementSnapshot minus(StatementSnapshot earlier) {
+            return new StatementSnapshot(requests - earlier.requests, statements - earlier.statements);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.conestoga.scheduler.loadtest;
+
+import com.conestoga.scheduler.ConestogaSchedulerApplication;
+import com.conestoga.scheduler.entity.Course;
+import com.conestoga.scheduler.repository.CourseRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Course search against the generated data: the old derived query
+// findByCourseCodeContainingIgnoreCase (upper(code) LIKE '%x%', unbounded,
+// code only) versus the indexed searchByText / searchByPrefix paths behind
+// GET /api/courses/search. Both run through Hibernate in a read-only
+// transaction, so the timings include hydrating the returned rows.
+
+class SearchBenchmark {
+
+    // Short prefix, common and rare code fragments, name and instructor substrings, a miss
+    static final List<String> SEARCH_TEXTS =
+            List.of("lt", "lt10", "1003", "course 4", "ructor 42", "no such course");
+
+    private static final int TRIGRAM_LENGTH = 3;
+    private static final int LIMIT = 20;
+    private static final int WARMUP_RUNS = 3;
+
+    private static final String CONTAINING_IGNORE_CASE =
+            "SELECT c FROM Course c WHERE upper(c.courseCode) LIKE upper(:pattern) ESCAPE '\\'";
+
+    private final String jdbcUrl;
+    private final String user;
+    private final String password;
+    private final int iterations;
+
+    SearchBenchmark(String jdbcUrl, String user, String password, int iterations) {
+        this.jdbcUrl = jdbcUrl;
+        this.user = user;
+        this.password = password;
+        this.iterations = iterations;
+    }
+
+    Map<String, Object> run(String label) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("spring.datasource.url", jdbcUrl);
+        properties.put("spring.datasource.username", user);
+        properties.put("spring.datasource.password", password);
+        properties.put("scheduler.sweeper.enabled", "false");
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ConestogaSchedulerApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(properties)
+                .run()) {
+            CourseRepository courses = context.getBean(CourseRepository.class);
+            EntityManager entityManager = context.getBean(EntityManager.class);
+            TransactionTemplate transactionTemplate = new TransactionTemplate(
+                    context.getBean(TransactionTemplate.class).getTransactionManager());
+            transactionTemplate.setReadOnly(true);
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("label", label);
+            report.put("iterations", iterations);
+            Map<String, Object> results = new LinkedHashMap<>();
+            for (String text : SEARCH_TEXTS) {
+                String escaped = text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("containingIgnoreCase", measure(transactionTemplate, () -> entityManager
+                        .createQuery(CONTAINING_IGNORE_CASE, Course.class)
+                        .setParameter("pattern", "%" + escaped + "%")
+                        .getResultList()));
+                result.put("indexed", measure(transactionTemplate, () -> text.length() < TRIGRAM_LENGTH
+                        ? courses.searchByPrefix(escaped + "%", LIMIT)
+                        : courses.searchByText("%" + escaped + "%", escaped + "%", LIMIT)));
+                results.put(text, result);
+            }
+            report.put("results", results);
+            return report;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static void printSummary(Map<String, Object> report, PrintStream out) {
+        out.printf("%-16s %-22s %8s %9s %9s%n", "search", "path", "rows", "p50 ms", "max ms");
+        Map<String, Object> results = (Map<String, Object>) report.get("results");
+        for (Map.Entry<String, Object> entry : results.entrySet()) {
+            for (Map.Entry<String, Object> path : ((Map<String, Object>) entry.getValue()).entrySet()) {
+                Map<String, Object> result = (Map<String, Object>) path.getValue();
+                out.printf("%-16s %-22s %8d %9.2f %9.2f%n", entry.getKey(), path.getKey(),
+                        result.get("rows"), result.get("p50Ms"), result.get("maxMs"));
+            }
+        }
+    }
+
+    static void write(Map<String, Object> report, Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), report);
+    }
+
+    private Map<String, Object> measure(TransactionTemplate transactionTemplate, Supplier<List<Course>> search) {
+        int rows = 0;
+        List<Double> millis = new ArrayList<>(iterations);
+        for (int i = 0; i < WARMUP_RUNS + iterations; i++) {
+            long started = System.nanoTime();
+            rows = transactionTemplate.execute(status -> search.get().size());
+            if (i >= WARMUP_RUNS) {
+                millis.add((System.nanoTime() - started) / 1e6);
+            }
+        }
+        double[] sorted = millis.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("rows", rows);
+        result.put("p50Ms", round(sorted[sorted.length / 2]));
+        result.put("meanMs", round(Arrays.stream(sorted).average().orElse(0)));
+        result.put("maxMs", round(sorted[sorted.length - 1]));
+        return result;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
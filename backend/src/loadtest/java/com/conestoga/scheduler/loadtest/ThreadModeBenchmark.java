@@ -0,0 +1,238 @@
+package com.conestoga.scheduler.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Closed-loop load benchmark for the exam read endpoints, used to compare
+// platform-thread and virtual-thread request execution. Needs only the JDK:
+//
+//   java src/loadtest/java/com/conestoga/scheduler/loadtest/ThreadModeBenchmark.java \
+//       --base-url http://localhost:8081 --users 200 --concurrency 400 --seed
+//
+// Each client thread picks a random user and endpoint, waits for the reply
+// and goes again. Warm-up requests are discarded. The result is one JSON line
+// with throughput and latency percentiles so runs can be diffed; see
+// scripts/thread-mode-benchmark.sh for the side-by-side comparison.
+
+public class ThreadModeBenchmark {
+
+    private static final Pattern CREATED_ID = Pattern.compile("\"id\":(\\d+)");
+    private static final int COURSES_PER_USER = 5;
+    private static final int EXAMS_PER_COURSE = 3;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final String baseUrl;
+    private final int users;
+    private final int concurrency;
+    private final Duration warmup;
+    private final Duration duration;
+    private final String label;
+
+    ThreadModeBenchmark(Map<String, String> options) {
+        this.baseUrl = options.getOrDefault("base-url", "http://localhost:8081");
+        this.users = Integer.parseInt(options.getOrDefault("users", "200"));
+        this.concurrency = Integer.parseInt(options.getOrDefault("concurrency", "400"));
+        this.warmup = Duration.parse("PT" + options.getOrDefault("warmup", "10s"));
+        this.duration = Duration.parse("PT" + options.getOrDefault("duration", "30s"));
+        this.label = options.getOrDefault("label", "run");
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            String name = args[i].substring(2);
+            boolean flag = i + 1 >= args.length || args[i + 1].startsWith("--");
+            options.put(name, flag ? "true" : args[++i]);
+        }
+
+        ThreadModeBenchmark benchmark = new ThreadModeBenchmark(options);
+        if (Boolean.parseBoolean(options.getOrDefault("seed", "false"))) {
+            benchmark.seed();
+        }
+        System.out.println(benchmark.run());
+    }
+
+    // Creates COURSES_PER_USER courses and EXAMS_PER_COURSE exams per course for
+    // user ids 1..users through the bulk endpoints, spread over the next month.
+
+    void seed() throws Exception {
+        LocalDate start = LocalDate.now();
+        for (long userId = 1; userId <= users; userId++) {
+            StringBuilder courses = new StringBuilder("[");
+            for (int c = 0; c < COURSES_PER_USER; c++) {
+                if (c > 0) {
+                    courses.append(',');
+                }
+                courses.append("{\"courseCode\":\"BENCH").append(1000 + c)
+                        .append("\",\"courseName\":\"Benchmark course ").append(c)
+                        .append("\",\"instructor\":\"Instructor ").append(c % 3)
+                        .append("\",\"term\":\"Bench\"}");
+            }
+            String created = post("/api/courses/bulk?userId=" + userId, courses.append(']').toString());
+
+            StringBuilder exams = new StringBuilder("[");
+            Matcher ids = CREATED_ID.matcher(created);
+            int slot = 0;
+            while (ids.find()) {
+                for (int e = 0; e < EXAMS_PER_COURSE; e++, slot++) {
+                    if (exams.length() > 1) {
+                        exams.append(',');
+                    }
+                    exams.append("{\"courseId\":").append(ids.group(1))
+                            .append(",\"examType\":\"Bench ").append(e)
+                            .append("\",\"examDate\":\"").append(start.plusDays(slot * 2L % 30))
+                            .append("\",\"examTime\":\"").append(slot % 2 == 0 ? "09:00:00" : "14:00:00")
+                            .append("\",\"location\":\"Room ").append(slot % 10)
+                            .append("\",\"duration\":2.0,\"status\":\"upcoming\"}");
+                }
+            }
+            post("/api/exams/bulk?userId=" + userId, exams.append(']').toString());
+        }
+        System.err.println("Seeded " + users + " users");
+    }
+
+    String run() throws InterruptedException {
+        long warmupEnd = System.nanoTime() + warmup.toNanos();
+        long end = warmupEnd + duration.toNanos();
+        List<Client> clients = new ArrayList<>(concurrency);
+        CountDownLatch done = new CountDownLatch(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            Client worker = new Client(warmupEnd, end, done);
+            clients.add(worker);
+            Thread thread = new Thread(worker, "bench-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await();
+
+        int total = 0;
+        long errors = 0;
+        for (Client worker : clients) {
+            total += worker.count;
+            errors += worker.errors;
+        }
+        long[] latencies = new long[total];
+        int offset = 0;
+        for (Client worker : clients) {
+            System.arraycopy(worker.latencies, 0, latencies, offset, worker.count);
+            offset += worker.count;
+        }
+        Arrays.sort(latencies);
+
+        double seconds = duration.toNanos() / 1e9;
+        return String.format(
+                "{\"label\":\"%s\",\"concurrency\":%d,\"requests\":%d,\"errors\":%d,\"throughput\":%.1f,"
+                        + "\"p50Ms\":%.2f,\"p99Ms\":%.2f,\"p999Ms\":%.2f,\"maxMs\":%.2f}",
+                label, concurrency, total, errors, total / seconds,
+                percentile(latencies, 0.50), percentile(latencies, 0.99),
+                percentile(latencies, 0.999), percentile(latencies, 1.0));
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    // Mix of the exam screens: dashboard list, paged list, today view and a
+    // two-week range. Requests carry no validators, so none of them is a 304.
+
+    private String nextPath() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long userId = 1 + random.nextLong(users);
+        int pick = random.nextInt(100);
+        if (pick < 40) {
+            return "/api/exams?userId=" + userId;
+        }
+        if (pick < 65) {
+            return "/api/exams/page?userId=" + userId + "&size=20";
+        }
+        if (pick < 85) {
+            return "/api/exams/today?userId=" + userId;
+        }
+        LocalDate from = LocalDate.now().plusDays(random.nextInt(14));
+        return "/api/exams/range?userId=" + userId + "&startDate=" + from + "&endDate=" + from.plusDays(14);
+    }
+
+    private String post(String path, String json) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException("POST " + path + " failed with " + response.statusCode()
+                    + ": " + response.body());
+        }
+        return response.body();
+    }
+
+    private class Client implements Runnable {
+
+        private final long measureFrom;
+        private final long end;
+        private final CountDownLatch done;
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        Client(long measureFrom, long end, CountDownLatch done) {
+            this.measureFrom = measureFrom;
+            this.end = end;
+            this.done = done;
+        }
+
+        @Override
+        public void run() {
+            try {
+                long now;
+                while ((now = System.nanoTime()) < end) {
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + nextPath()))
+                            .timeout(Duration.ofSeconds(30))
+                            .GET()
+                            .build();
+                    boolean failed;
+                    try {
+                        failed = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() >= 400;
+                    } catch (Exception e) {
+                        failed = true;
+                    }
+                    long finished = System.nanoTime();
+                    if (now < measureFrom) {
+                        continue;
+                    }
+                    if (failed) {
+                        errors++;
+                    }
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = finished - now;
+                }
+            } finally {
+                done.countDown();
+            }
+        }
+    }
+}
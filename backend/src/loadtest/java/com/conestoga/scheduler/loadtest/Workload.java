@@ -0,0 +1,159 @@
+package com.conestoga.scheduler.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Weighted mix of API calls. Each endpoint knows its HTTP method and URI
+// pattern, which match the tags of the server's per-request metrics.
+
+class Workload {
+
+    static final String DEFAULT_MIX =
+            "exams.list=25,courses.list=15,exams.today=25,exams.range=15,exams.page=10,exams.status=10";
+
+    enum Endpoint {
+        EXAMS_LIST("exams.list", "GET", "/api/exams"),
+        COURSES_LIST("courses.list", "GET", "/api/courses"),
+        EXAMS_TODAY("exams.today", "GET", "/api/exams/today"),
+        EXAMS_RANGE("exams.range", "GET", "/api/exams/range"),
+        EXAMS_PAGE("exams.page", "GET", "/api/exams/page"),
+        EXAMS_QUERY("exams.query", "GET", "/api/exams/query"),
+        EXAMS_FREE("exams.free", "GET", "/api/exams/free-slots"),
+        EXAMS_STATUS("exams.status", "PATCH", "/api/exams/{id}/status"),
+        COURSES_SEARCH("courses.search", "GET", "/api/courses/search"),
+        COURSES_UPDATE("courses.update", "PUT", "/api/courses/{id}");
+
+        final String key;
+        final String method;
+        final String uriPattern;
+
+        Endpoint(String key, String method, String uriPattern) {
+            this.key = key;
+            this.method = method;
+            this.uriPattern = uriPattern;
+        }
+
+        static Endpoint of(String key) {
+            for (Endpoint endpoint : values()) {
+                if (endpoint.key.equals(key)) {
+                    return endpoint;
+                }
+            }
+            throw new IllegalArgumentException("Unknown endpoint in mix: " + key);
+        }
+    }
+
+    final List<Endpoint> endpoints = new ArrayList<>();
+    private final List<Integer> cumulativeWeights = new ArrayList<>();
+    private int totalWeight;
+
+    // "exams.list=25,exams.today=25,..."
+
+    static Workload parse(String mix) {
+        Workload workload = new Workload();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                workload.totalWeight += weight;
+                workload.endpoints.add(Endpoint.of(parts[0].trim()));
+                workload.cumulativeWeights.add(workload.totalWeight);
+            }
+        }
+        if (workload.endpoints.isEmpty()) {
+            throw new IllegalArgumentException("Mix has no endpoints: " + mix);
+        }
+        return workload;
+    }
+
+    Endpoint next() {
+        int pick = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (int i = 0; i < endpoints.size(); i++) {
+            if (pick < cumulativeWeights.get(i)) {
+                return endpoints.get(i);
+            }
+        }
+        throw new IllegalStateException("Weight out of range");
+    }
+
+    // A random combination of the query filters, each present with probability 1/2
+
+    private static String queryFilters(ThreadLocalRandom random, Dataset dataset, int userIndex) {
+        StringBuilder filters = new StringBuilder();
+        if (random.nextBoolean()) {
+            filters.append("&status=").append(random.nextBoolean() ? "upcoming" : "completed");
+        }
+        if (random.nextBoolean()) {
+            LocalDate from = dataset.startDate.plusDays(random.nextInt(Math.max(1, dataset.spanDays - 14)));
+            filters.append("&startDate=").append(from).append("&endDate=").append(from.plusDays(14));
+        }
+        if (random.nextBoolean()) {
+            filters.append("&term=Load%20test");
+        }
+        if (random.nextBoolean()) {
+            filters.append("&courseIds=").append(dataset.randomCourseId(userIndex))
+                    .append(',').append(dataset.randomCourseId(userIndex));
+        }
+        if (random.nextBoolean()) {
+            filters.append("&examType=").append(random.nextBoolean() ? "Final" : "Quiz");
+        }
+        if (random.nextBoolean()) {
+            filters.append("&sort=").append(random.nextBoolean() ? "courseCode,-examDate" : "-examDate");
+        }
+        return filters.toString();
+    }
+
+    static HttpRequest request(Endpoint endpoint, String baseUrl, Dataset dataset) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int userIndex = dataset.randomUserIndex();
+        long userId = dataset.userId(userIndex);
+        long courseId = dataset.randomCourseId(userIndex);
+
+        String path = switch (endpoint) {
+            case EXAMS_LIST -> "/api/exams?userId=" + userId;
+            case COURSES_LIST -> "/api/courses?userId=" + userId;
+            case EXAMS_TODAY -> "/api/exams/today?userId=" + userId;
+            case EXAMS_RANGE -> {
+                LocalDate from = dataset.startDate.plusDays(random.nextInt(Math.max(1, dataset.spanDays - 14)));
+                yield "/api/exams/range?userId=" + userId + "&startDate=" + from + "&endDate=" + from.plusDays(14);
+            }
+            case EXAMS_PAGE -> "/api/exams/page?userId=" + userId + "&size=20";
+            case EXAMS_QUERY -> "/api/exams/query?userId=" + userId + queryFilters(random, dataset, userIndex);
+            case EXAMS_FREE -> {
+                // Half the calls are for a study group of three
+                LocalDate from = dataset.startDate.plusDays(random.nextInt(Math.max(1, dataset.spanDays - 14)));
+                String group = random.nextBoolean() ? ""
+                        : "&withUserIds=" + dataset.userId(dataset.randomUserIndex())
+                                + "," + dataset.userId(dataset.randomUserIndex());
+                yield "/api/exams/free-slots?userId=" + userId + group + "&startDate=" + from
+                        + "&endDate=" + from.plusDays(14) + "&minMinutes=90&dayStart=09:00&dayEnd=21:00";
+            }
+            case EXAMS_STATUS -> "/api/exams/" + dataset.randomExamId(userIndex) + "/status?userId=" + userId
+                    + "&status=" + (random.nextBoolean() ? "completed" : "upcoming");
+            case COURSES_SEARCH -> "/api/courses/search?q=" + URLEncoder.encode(
+                    SearchBenchmark.SEARCH_TEXTS.get(random.nextInt(SearchBenchmark.SEARCH_TEXTS.size())),
+                    StandardCharsets.UTF_8);
+            case COURSES_UPDATE -> "/api/courses/" + courseId + "?userId=" + userId;
+        };
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path));
+        if (endpoint == Endpoint.COURSES_UPDATE) {
+            // Keeps the course's generated code, name and term and only changes the instructor,
+            // so the dataset keeps its shape
+            String body = "{\"courseCode\":\"" + dataset.courseCode(courseId) + "\",\"courseName\":\""
+                    + dataset.courseName(courseId) + "\",\"instructor\":\"Instructor " + random.nextInt(97)
+                    + "\",\"term\":\"" + Dataset.TERM + "\"}";
+            return builder.header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(body)).build();
+        }
+        return endpoint.method.equals("GET")
+                ? builder.GET().build()
+                : builder.method(endpoint.method, HttpRequest.BodyPublishers.noBody()).build();
+    }
+}
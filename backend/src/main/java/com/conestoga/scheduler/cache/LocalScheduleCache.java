@@ -0,0 +1,86 @@
+package com.conestoga.scheduler.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// In-process cache: one Caffeine entry per (user, generation, view), bounded
+// by the total number of views and expiring after the TTL. View keys come from
+// request parameters (date ranges, terms, ...), so the bound is on views
+// rather than users: one user requesting many ranges only pushes out the
+// least used views.
+//
+// Each view is stored with the schedule version it was loaded at. Entries of
+// an older version are reloaded, so a view is correct even before the
+// after-commit eviction has run, or when the change was made on another node.
+//
+// Evicting a user gives it a new generation, as in SharedScheduleCache, which
+// makes all of its older views unreachable; size and TTL reclaim them. A load
+// that was racing with the eviction writes under the old generation, so it
+// can never resurrect stale data into the cache. Generations are never reused,
+// so dropping a user's generation entry only orphans its views.
+
+public class LocalScheduleCache implements ScheduleCache {
+
+    private final Cache<Long, Long> generations;
+    private final Cache<ViewKey, CachedView> views;
+    private final AtomicLong nextGeneration = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter invalidations;
+
+    public LocalScheduleCache(long maximumUsers, long maximumViews, Duration ttl, MeterRegistry meterRegistry) {
+        this.generations = Caffeine.newBuilder()
+                .maximumSize(maximumUsers)
+                .expireAfterAccess(ttl)
+                .build();
+        this.views = Caffeine.newBuilder()
+                .maximumSize(maximumViews)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, views, "schedules");
+        this.hits = meterRegistry.counter("scheduler.cache.views", "backend", "local", "result", "hit");
+        this.misses = meterRegistry.counter("scheduler.cache.views", "backend", "local", "result", "miss");
+        this.invalidations = meterRegistry.counter("scheduler.cache.invalidations", "backend", "local");
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Long userId, String view, long version, Supplier<T> loader) {
+        long generation = generations.get(userId, id -> nextGeneration.incrementAndGet());
+        ViewKey key = new ViewKey(userId, generation, view);
+        CachedView cached = views.getIfPresent(key);
+        if (cached != null && cached.version == version) {
+            hits.increment();
+            return (T) cached.value;
+        }
+
+        misses.increment();
+        T loaded = loader.get();
+        if (loaded != null) {
+            // A slower load of an older version never replaces a newer one
+            views.asMap().merge(key, new CachedView(version, loaded),
+                    (current, fresh) -> current.version > fresh.version ? current : fresh);
+        }
+        return loaded;
+    }
+
+    @Override
+    public void evict(Long userId) {
+        generations.put(userId, nextGeneration.incrementAndGet());
+        invalidations.increment();
+    }
+
+    private record ViewKey(long userId, long generation, String view) {
+    }
+
+    private record CachedView(long version, Object value) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.conestoga.scheduler.cache;
+
+import java.util.function.Supplier;
+
+// Read-through cache for per-user schedule views (exam lists, course lists, ...).
+// A view is identified by the user and a key describing the query, e.g.
+// "exams:status=UPCOMING", and is only served at the schedule version it was
+// loaded at: a caller asking for another version gets a fresh load. evict
+// drops every view of a user at once.
+
+public interface ScheduleCache {
+
+    <T> T get(Long userId, String view, long version, Supplier<T> loader);
+
+    void evict(Long userId);
+}
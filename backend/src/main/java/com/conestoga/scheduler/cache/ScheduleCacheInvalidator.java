@@ -0,0 +1,22 @@
+package com.conestoga.scheduler.cache;
+
+import com.conestoga.scheduler.event.ScheduleChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Evicts after commit so a concurrent read cannot reload pre-commit data
+
+@Component
+public class ScheduleCacheInvalidator {
+
+    private final ScheduleCache scheduleCache;
+
+    public ScheduleCacheInvalidator(ScheduleCache scheduleCache) {
+        this.scheduleCache = scheduleCache;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScheduleChanged(ScheduleChangedEvent event) {
+        scheduleCache.evict(event.getUserId());
+    }
+}
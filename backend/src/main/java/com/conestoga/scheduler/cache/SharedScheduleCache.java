@@ -0,0 +1,62 @@
+package com.conestoga.scheduler.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+// Cache backed by a Spring Cache (Redis, Hazelcast, ... configured through
+// spring.cache.*) so several app nodes share entries and invalidations.
+//
+// Views are stored under "userId:generation:version:view", so an entry is only
+// found at the schedule version it was loaded at. Evicting a user writes a
+// new generation, which makes all older entries unreachable on every node;
+// the backend's own TTL reclaims them. Cached values must be serializable by
+// the configured backend.
+
+public class SharedScheduleCache implements ScheduleCache {
+
+    private final Cache cache;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter invalidations;
+
+    public SharedScheduleCache(Cache cache, MeterRegistry meterRegistry) {
+        this.cache = cache;
+        this.hits = meterRegistry.counter("scheduler.cache.views", "backend", "shared", "result", "hit");
+        this.misses = meterRegistry.counter("scheduler.cache.views", "backend", "shared", "result", "miss");
+        this.invalidations = meterRegistry.counter("scheduler.cache.invalidations", "backend", "shared");
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Long userId, String view, long version, Supplier<T> loader) {
+        String generation = cache.get(generationKey(userId), () -> UUID.randomUUID().toString());
+        String key = userId + ":" + generation + ":" + version + ":" + view;
+
+        Cache.ValueWrapper cached = cache.get(key);
+        if (cached != null && cached.get() != null) {
+            hits.increment();
+            return (T) cached.get();
+        }
+
+        misses.increment();
+        T loaded = loader.get();
+        if (loaded != null) {
+            cache.put(key, loaded);
+        }
+        return loaded;
+    }
+
+    @Override
+    public void evict(Long userId) {
+        cache.put(generationKey(userId), UUID.randomUUID().toString());
+        invalidations.increment();
+    }
+
+    private static String generationKey(Long userId) {
+        return userId + ":generation";
+    }
+}
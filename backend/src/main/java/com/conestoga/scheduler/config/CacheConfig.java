@@ -0,0 +1,43 @@
+package com.conestoga.scheduler.config;
+
+import com.conestoga.scheduler.cache.LocalScheduleCache;
+import com.conestoga.scheduler.cache.ScheduleCache;
+import com.conestoga.scheduler.cache.SharedScheduleCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// scheduler.cache.backend=local (default) keeps schedules in this process;
+// scheduler.cache.backend=shared uses the Spring CacheManager configured via
+// spring.cache.type so that several nodes stay coherent.
+
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "scheduler.cache.backend", havingValue = "local", matchIfMissing = true)
+    public ScheduleCache localScheduleCache(
+            @Value("${scheduler.cache.maximum-users:10000}") long maximumUsers,
+            @Value("${scheduler.cache.maximum-views:100000}") long maximumViews,
+            @Value("${scheduler.cache.ttl:10m}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        return new LocalScheduleCache(maximumUsers, maximumViews, ttl, meterRegistry);
+    }
+
+    @Configuration
+    @EnableCaching
+    @ConditionalOnProperty(name = "scheduler.cache.backend", havingValue = "shared")
+    static class SharedCacheConfig {
+
+        @Bean
+        public ScheduleCache sharedScheduleCache(CacheManager cacheManager, MeterRegistry meterRegistry) {
+            return new SharedScheduleCache(cacheManager.getCache("schedules"), meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.conestoga.scheduler.config;
+
+import com.conestoga.scheduler.datasource.ReadYourWritesTracker;
+import com.conestoga.scheduler.datasource.ReplicaPolicy;
+import com.conestoga.scheduler.datasource.ReplicaRoutingDataSource;
+import com.conestoga.scheduler.datasource.RoutingUserInterceptor;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Read replicas, enabled by listing them in scheduler.datasource.replica-urls.
+// The primary stays configured through spring.datasource.* and every replica
+// pool copies its spring.datasource.hikari.* settings. Without replicas Spring
+// Boot's single DataSource is used unchanged.
+//
+// spring.jpa.open-in-view must stay off: with a request-wide EntityManager the
+// first transaction's connection is held for the rest of the request, so a
+// read-only call after a write would run on the primary and a write after a
+// read-only call would run on the replica.
+//
+// scheduler.datasource.replica-policy    round-robin (default) or least-connections
+// scheduler.datasource.sticky-window     how long a user's reads stay on the primary after a change
+
+@Configuration
+@ConditionalOnExpression("!'${scheduler.datasource.replica-urls:}'.isEmpty()")
+public class DataSourceRoutingConfig implements WebMvcConfigurer {
+
+    private final RoutingUserInterceptor routingUserInterceptor = new RoutingUserInterceptor();
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(
+            @Value("${scheduler.datasource.sticky-window:5s}") Duration stickyWindow,
+            @Value("${scheduler.cache.maximum-users:10000}") long maximumUsers) {
+        return new ReadYourWritesTracker(stickyWindow, maximumUsers);
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource dataSource(DataSourceProperties properties, Environment environment,
+            ReadYourWritesTracker readYourWritesTracker, MeterRegistry meterRegistry,
+            @Value("${scheduler.datasource.replica-urls}") List<String> replicaUrls,
+            @Value("${scheduler.datasource.replica-username:${spring.datasource.username:}}") String replicaUsername,
+            @Value("${scheduler.datasource.replica-password:${spring.datasource.password:}}") String replicaPassword,
+            @Value("${scheduler.datasource.replica-policy:round-robin}") ReplicaPolicy policy) {
+        MicrometerMetricsTrackerFactory poolMetrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+        primary.setMetricsTrackerFactory(poolMetrics);
+
+        List<HikariDataSource> replicas = new ArrayList<>(replicaUrls.size());
+        for (String url : replicaUrls) {
+            HikariDataSource replica = new HikariDataSource();
+            primary.copyStateTo(replica);
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(replicaUsername);
+            replica.setPassword(replicaPassword);
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, policy, readYourWritesTracker, meterRegistry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(routingUserInterceptor).addPathPatterns("/api/**");
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(routingUserInterceptor);
+    }
+}
@@ -0,0 +1,74 @@
+package com.conestoga.scheduler.config;
+
+import com.conestoga.scheduler.metrics.QueryCounter;
+import com.conestoga.scheduler.metrics.QueryMetricsInterceptor;
+import com.conestoga.scheduler.metrics.SlowQueryListener;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Telemetry wiring, all exposed under /actuator/metrics and /actuator/prometheus:
+// - scheduler.service: timer per ExamService/CourseService method (@Timed)
+// - spring.data.repository.invocations: timer per repository query (Spring Boot)
+// - http.server.requests: timer per controller endpoint (Spring Boot)
+// - scheduler.http.db.statements / scheduler.http.db.entity.loads per request
+// Percentiles and histograms for the timers are set in application.properties.
+
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final MeterRegistry meterRegistry;
+
+    public MetricsConfig(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCounterCustomizer() {
+        QueryCounter queryCounter = new QueryCounter();
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, queryCounter);
+            properties.put(AvailableSettings.INTERCEPTOR, queryCounter);
+        };
+    }
+
+    // Wraps the DataSource so slow statements are logged with their timing
+
+    @Bean
+    public static BeanPostProcessor slowQueryDataSourceProxy(
+            @Value("${scheduler.db.slow-query-threshold:200ms}") Duration threshold) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new SlowQueryListener(threshold))
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new QueryMetricsInterceptor(meterRegistry)).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,119 @@
+package com.conestoga.scheduler.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+// Reports which request threading mode is active and how it lines up with the
+// connection pool. spring.threads.virtual.enabled=true switches Tomcat, the
+// application task executor and the scheduler to virtual threads, but only on
+// a Java 21+ runtime. With virtual threads, concurrent JPA work is bounded by
+// the Hikari pool instead of Tomcat's thread pool, so both sizes are logged.
+//
+// On Java 21+ the JFR jdk.VirtualThreadPinned event is streamed in-process:
+// each pin longer than scheduler.threads.pinned-threshold increments the
+// scheduler.threads.pinned counter and logs the frames that held the carrier.
+
+@Component
+public class ThreadingDiagnostics {
+
+    private static final Logger log = LoggerFactory.getLogger(ThreadingDiagnostics.class);
+
+    private static final int VIRTUAL_THREADS_JAVA_VERSION = 21;
+    private static final int PINNED_FRAMES_LOGGED = 8;
+
+    private final Environment environment;
+    private final DataSource dataSource;
+    private final Counter pinnedThreads;
+    private final int tomcatMaxThreads;
+    private final Duration pinnedThreshold;
+    private RecordingStream pinnedEvents;
+
+    @Autowired
+    public ThreadingDiagnostics(Environment environment, DataSource dataSource, MeterRegistry meterRegistry,
+            @Value("${server.tomcat.threads.max:200}") int tomcatMaxThreads,
+            @Value("${scheduler.threads.pinned-threshold:20ms}") Duration pinnedThreshold) {
+        this.environment = environment;
+        this.dataSource = dataSource;
+        this.pinnedThreads = meterRegistry.counter("scheduler.threads.pinned");
+        this.tomcatMaxThreads = tomcatMaxThreads;
+        this.pinnedThreshold = pinnedThreshold;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report() {
+        int javaVersion = Runtime.version().feature();
+        boolean virtualRequested = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        String poolSize = poolSize();
+
+        if (Threading.VIRTUAL.isActive(environment)) {
+            log.info("Request threading: virtual threads (Java {}), database pool size {}", javaVersion, poolSize);
+            startPinnedThreadMonitor();
+        } else {
+            if (virtualRequested) {
+                log.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads; "
+                        + "run on Java {}+ (mvn -Pjava21)", javaVersion, VIRTUAL_THREADS_JAVA_VERSION);
+            }
+            log.info("Request threading: platform threads, Tomcat max threads {}, database pool size {}",
+                    tomcatMaxThreads, poolSize);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (pinnedEvents != null) {
+            pinnedEvents.close();
+        }
+    }
+
+    private String poolSize() {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return String.valueOf(dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize());
+            }
+        } catch (SQLException e) {
+            // Fall through to unknown
+        }
+        return "unknown";
+    }
+
+    private void startPinnedThreadMonitor() {
+        pinnedEvents = new RecordingStream();
+        pinnedEvents.enable("jdk.VirtualThreadPinned").withThreshold(pinnedThreshold).withStackTrace();
+        pinnedEvents.onEvent("jdk.VirtualThreadPinned", this::onPinned);
+        pinnedEvents.startAsync();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedThreads.increment();
+        StringBuilder frames = new StringBuilder();
+        if (event.getStackTrace() != null) {
+            List<RecordedFrame> stack = event.getStackTrace().getFrames();
+            for (int i = 0; i < Math.min(PINNED_FRAMES_LOGGED, stack.size()); i++) {
+                RecordedFrame frame = stack.get(i);
+                frames.append("\n\tat ").append(frame.getMethod().getType().getName())
+                        .append('.').append(frame.getMethod().getName())
+                        .append(':').append(frame.getLineNumber());
+            }
+        }
+        log.warn("Virtual thread pinned to its carrier for {} ms{}", event.getDuration().toMillis(), frames);
+    }
+}
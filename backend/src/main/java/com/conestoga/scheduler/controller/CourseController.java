@@ -1,12 +1,19 @@
 package com.conestoga.scheduler.controller;
 
+import com.conestoga.scheduler.dto.BulkDeleteResultDTO;
+import com.conestoga.scheduler.dto.BulkImportResultDTO;
 import com.conestoga.scheduler.dto.CourseDTO;
+import com.conestoga.scheduler.dto.PageDTO;
 import com.conestoga.scheduler.service.CourseService;
+import com.conestoga.scheduler.service.ScheduleVersionService;
+import com.conestoga.scheduler.service.VersionedView;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -16,19 +23,40 @@ import java.util.List;
 public class CourseController {
 
     private final CourseService courseService;
+    private final ScheduleVersionService scheduleVersionService;
 
     @Autowired
-    public CourseController(CourseService courseService) {
+    public CourseController(CourseService courseService, ScheduleVersionService scheduleVersionService) {
         this.courseService = courseService;
+        this.scheduleVersionService = scheduleVersionService;
     }
 
     // Get /api/courses?userId=1
     // Get all courses for a user
 
     @GetMapping
-    public ResponseEntity<List<CourseDTO>> getAllCourses(@RequestParam Long userId) {
-        List<CourseDTO> courses = courseService.getAllCourses(userId);
-        return ResponseEntity.ok(courses);
+    public ResponseEntity<List<CourseDTO>> getAllCourses(@RequestParam Long userId, WebRequest webRequest) {
+        // 304 Not Modified while the user's schedule version is unchanged
+        VersionedView<List<CourseDTO>> courses = courseService.getAllCourses(userId);
+        if (webRequest.checkNotModified(scheduleVersionService.etag(courses.getVersion(), "courses"),
+                scheduleVersionService.lastModified(courses.getVersion()))) {
+            return null;
+        }
+
+        return ResponseEntity.ok(courses.getValue());
+    }
+
+    // GET /api/courses/page?userId=1&size=20
+    // GET /api/courses/page?userId=1&size=20&cursor=...
+    // Get one page of courses; pass nextCursor back to get the following page
+
+    @GetMapping("/page")
+    public ResponseEntity<PageDTO<CourseDTO>> getCoursePage(
+            @RequestParam Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        PageDTO<CourseDTO> page = courseService.getCoursePage(userId, cursor, size);
+        return ResponseEntity.ok(page);
     }
 
     // GET /api/courses?userId=1&term=Fall 2024
@@ -37,9 +65,15 @@ public class CourseController {
     @GetMapping(params = { "userId", "term" })
     public ResponseEntity<List<CourseDTO>> getCourseByTerm(
             @RequestParam Long userId,
-            @RequestParam String term) {
-        List<CourseDTO> courses = courseService.getCoursesByTerm(userId, term);
-        return ResponseEntity.ok(courses);
+            @RequestParam String term,
+            WebRequest webRequest) {
+        VersionedView<List<CourseDTO>> courses = courseService.getCoursesByTerm(userId, term);
+        if (webRequest.checkNotModified(scheduleVersionService.etag(courses.getVersion(), "courses", term),
+                scheduleVersionService.lastModified(courses.getVersion()))) {
+            return null;
+        }
+
+        return ResponseEntity.ok(courses.getValue());
     }
 
     // GET /api/courses/1?userId=1
@@ -64,6 +98,26 @@ public class CourseController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdCourse);
     }
 
+    // POST /api/courses/bulk?userId=1
+    // Create many courses from a JSON array or a CSV body with a header row.
+    // Nothing is saved if any row fails; the response lists every failing row.
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkImportResultDTO<CourseDTO>> importCourses(
+            @RequestBody List<CourseDTO> courseDTOs,
+            @RequestParam Long userId) {
+        BulkImportResultDTO<CourseDTO> result = courseService.importCourses(courseDTOs, userId);
+        return ResponseEntity.status(result.hasErrors() ? HttpStatus.BAD_REQUEST : HttpStatus.CREATED).body(result);
+    }
+
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public ResponseEntity<BulkImportResultDTO<CourseDTO>> importCoursesCsv(
+            @RequestBody String csv,
+            @RequestParam Long userId) {
+        BulkImportResultDTO<CourseDTO> result = courseService.importCoursesCsv(csv, userId);
+        return ResponseEntity.status(result.hasErrors() ? HttpStatus.BAD_REQUEST : HttpStatus.CREATED).body(result);
+    }
+
     // PUT /api/courses/1?userId=1
     // Update an existing course
 
@@ -76,23 +130,52 @@ public class CourseController {
         return ResponseEntity.ok(updatedCourse);
     }
 
-    // DELETE /api/courses/1?userId=1
+    // DELETE /api/courses/1?userId=1&version=3  (version optional)
     // Delete a course
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteCourse(
             @PathVariable Long id,
+            @RequestParam(required = false) Long version,
             @RequestParam Long userId) {
-        courseService.deleteCourse(id, userId);
+        courseService.deleteCourse(id, version, userId);
         return ResponseEntity.noContent().build();
     }
 
+    // DELETE /api/courses?userId=1  (body: [1, 2, 3])
+    // Delete many courses and their exams at once
+
+    @DeleteMapping
+    public ResponseEntity<BulkDeleteResultDTO> deleteCourses(
+            @RequestBody List<Long> ids,
+            @RequestParam Long userId) {
+        BulkDeleteResultDTO result = courseService.deleteCourses(ids, userId);
+        return ResponseEntity.ok(result);
+    }
+
+    // DELETE /api/courses/term?userId=1&term=Fall 2024
+    // DELETE /api/courses/term?userId=1&term=Fall 2024&allUsers=true (admins only)
+    // Delete every course in a term and their exams
+
+    @DeleteMapping("/term")
+    public ResponseEntity<BulkDeleteResultDTO> deleteTerm(
+            @RequestParam String term,
+            @RequestParam(defaultValue = "false") boolean allUsers,
+            @RequestParam Long userId) {
+        BulkDeleteResultDTO result = courseService.deleteTerm(term, allUsers, userId);
+        return ResponseEntity.ok(result);
+    }
+
+    // GET /api/courses/search?q=java&limit=10
     // GET /api/courses/search?code=COMP
-    // Search courses by code
+    // Search courses by code, name or instructor; prefix matches come first
 
     @GetMapping("/search")
-    public ResponseEntity<List<CourseDTO>> searchCourses(@RequestParam String code) {
-        List<CourseDTO> courses = courseService.searchCourses(code);
+    public ResponseEntity<List<CourseDTO>> searchCourses(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String code,
+            @RequestParam(required = false) Integer limit) {
+        List<CourseDTO> courses = courseService.searchCourses(q != null ? q : code, limit);
         return ResponseEntity.ok(courses);
     }
 }
@@ -0,0 +1,39 @@
+package com.conestoga.scheduler.controller;
+
+import com.conestoga.scheduler.dto.DashboardSummaryDTO;
+import com.conestoga.scheduler.service.DashboardService;
+import com.conestoga.scheduler.service.ScheduleVersionService;
+import com.conestoga.scheduler.service.VersionedView;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@CrossOrigin(origins = "http://localhost:3000")
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+    private final ScheduleVersionService scheduleVersionService;
+
+    @Autowired
+    public DashboardController(DashboardService dashboardService, ScheduleVersionService scheduleVersionService) {
+        this.dashboardService = dashboardService;
+        this.scheduleVersionService = scheduleVersionService;
+    }
+
+    // GET /api/dashboard/summary?userId=1
+    // Exam counts by status, term and week, and the next upcoming exam
+
+    @GetMapping("/summary")
+    public ResponseEntity<DashboardSummaryDTO> getSummary(@RequestParam Long userId, WebRequest webRequest) {
+        VersionedView<DashboardSummaryDTO> summary = dashboardService.getSummary(userId);
+        if (webRequest.checkNotModified(scheduleVersionService.etag(summary.getVersion(), "dashboard"),
+                scheduleVersionService.lastModified(summary.getVersion()))) {
+            return null;
+        }
+
+        return ResponseEntity.ok(summary.getValue());
+    }
+}
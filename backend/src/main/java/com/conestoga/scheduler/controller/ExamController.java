@@ -1,55 +1,193 @@
 package com.conestoga.scheduler.controller;
 
+import com.conestoga.scheduler.dto.BulkImportResultDTO;
+import com.conestoga.scheduler.dto.BulkStatusResultDTO;
+import com.conestoga.scheduler.dto.ExamConflictDTO;
 import com.conestoga.scheduler.dto.ExamDTO;
+import com.conestoga.scheduler.dto.ExamQueryDTO;
+import com.conestoga.scheduler.dto.PageDTO;
+import com.conestoga.scheduler.entity.ScheduleVersion;
+import com.conestoga.scheduler.service.CalendarService;
 import com.conestoga.scheduler.service.ExamService;
+import com.conestoga.scheduler.service.ScheduleChangeStream;
+import com.conestoga.scheduler.service.ScheduleVersionService;
+import com.conestoga.scheduler.service.VersionedView;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/exams")
 @CrossOrigin(origins = "http://localhost:3000")
 public class ExamController {
 
+    private static final MediaType TEXT_CALENDAR = MediaType.parseMediaType("text/calendar;charset=UTF-8");
+
     private final ExamService examService;
+    private final CalendarService calendarService;
+    private final ScheduleChangeStream scheduleChangeStream;
+    private final ScheduleVersionService scheduleVersionService;
 
     @Autowired
-    public ExamController(ExamService examService) {
+    public ExamController(ExamService examService, CalendarService calendarService,
+            ScheduleChangeStream scheduleChangeStream, ScheduleVersionService scheduleVersionService) {
         this.examService = examService;
+        this.calendarService = calendarService;
+        this.scheduleChangeStream = scheduleChangeStream;
+        this.scheduleVersionService = scheduleVersionService;
     }
 
     // GET /api/exams?userId=1
     // GET /api/exams?userId=1&status=upcoming
     // Get all exams for a user
+    // Read endpoints answer 304 Not Modified when If-None-Match / If-Modified-Since
+    // still match the user's schedule version. The validators come from the
+    // version the view was read at, and a view cached at that version is
+    // answered without touching the exam tables.
 
     @GetMapping
     public ResponseEntity<List<ExamDTO>> getAllExams(
             @RequestParam Long userId,
-            @RequestParam(required = false) String status) {
+            @RequestParam(required = false) String status,
+            WebRequest webRequest) {
+        VersionedView<List<ExamDTO>> exams;
         if (status != null && !status.isEmpty()) {
             // Filter by status if provided
-            List<ExamDTO> exams = examService.getExamsByStatus(userId, status);
-            return ResponseEntity.ok(exams);
+            exams = examService.getExamsByStatus(userId, status);
         } else {
             // Get all exams
-            List<ExamDTO> exams = examService.getAllExams(userId);
-            return ResponseEntity.ok(exams);
+            exams = examService.getAllExams(userId);
+        }
+
+        if (webRequest.checkNotModified(scheduleVersionService.etag(exams.getVersion(), "exams", status),
+                scheduleVersionService.lastModified(exams.getVersion()))) {
+            return null;
+        }
+
+        return ResponseEntity.ok(exams.getValue());
+    }
+
+    // GET /api/exams/export?userId=1
+    // GET /api/exams/export?userId=1&term=Fall 2024 (admins only)
+    // Stream every exam as newline-delimited JSON
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportExams(
+            @RequestParam Long userId,
+            @RequestParam(required = false) String term) {
+        examService.checkExportAccess(userId, term);
+        StreamingResponseBody body = out -> examService.exportExams(userId, term, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"exams.ndjson\"")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    // GET /api/exams/free-slots?userId=1&startDate=2024-12-01&endDate=2024-12-14&minMinutes=90
+    // GET /api/exams/free-slots?userId=1&withUserIds=2,3&startDate=...&endDate=...&dayStart=09:00&dayEnd=21:00
+    // Stream free study windows as newline-delimited JSON; with withUserIds only
+    // the windows every user in the group has free
+
+    @GetMapping(value = "/free-slots", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getFreeSlots(
+            @RequestParam Long userId,
+            @RequestParam(required = false) List<Long> withUserIds,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "60") int minMinutes,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime dayStart,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime dayEnd) {
+        Set<Long> userIds = new LinkedHashSet<>();
+        userIds.add(userId);
+        if (withUserIds != null) {
+            userIds.addAll(withUserIds);
         }
+        List<Long> group = new ArrayList<>(userIds);
+        examService.checkFreeSlotsRequest(group, startDate, endDate, minMinutes, dayStart, dayEnd);
+        StreamingResponseBody body = out -> examService.writeFreeSlots(
+                group, startDate, endDate, minMinutes, dayStart, dayEnd, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    // GET /api/exams/stream?userId=1
+    // Server-Sent Events: a "schedule-change" event after every committed change to
+    // the user's courses or exams. EventSource reconnects with Last-Event-ID and
+    // gets what it missed, or a "resync" event when it should re-fetch everything.
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges(
+            @RequestParam Long userId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        SseEmitter emitter = scheduleChangeStream.subscribe(userId, lastEventId);
+        return ResponseEntity.ok(emitter);
+    }
+
+    // GET /api/exams/calendar.ics?userId=1
+    // iCalendar feed for calendar app subscriptions
+
+    @GetMapping("/calendar.ics")
+    public ResponseEntity<byte[]> getCalendar(@RequestParam Long userId, WebRequest webRequest) {
+        VersionedView<byte[]> calendar = calendarService.getCalendar(userId);
+        if (webRequest.checkNotModified(scheduleVersionService.etag(calendar.getVersion(), "calendar"),
+                scheduleVersionService.lastModified(calendar.getVersion()))) {
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .contentType(TEXT_CALENDAR)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"exams.ics\"")
+                .body(calendar.getValue());
+    }
+
+    // GET /api/exams/page?userId=1&size=20
+    // GET /api/exams/page?userId=1&size=20&cursor=...
+    // Get one page of exams; pass nextCursor back to get the following page
+
+    @GetMapping("/page")
+    public ResponseEntity<PageDTO<ExamDTO>> getExamPage(
+            @RequestParam Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        PageDTO<ExamDTO> page = examService.getExamPage(userId, cursor, size);
+        return ResponseEntity.ok(page);
     }
 
     // GET /api/exams/today?userId=1
     // Get current date's exams
 
     @GetMapping("/today")
-    public ResponseEntity<List<ExamDTO>> getTodaysExams(@RequestParam Long userId) {
-        List<ExamDTO> exams = examService.getTodaysExams(userId);
-        return ResponseEntity.ok(exams);
+    public ResponseEntity<List<ExamDTO>> getTodaysExams(@RequestParam Long userId, WebRequest webRequest) {
+        // The view also changes at midnight, so the date is part of the validators
+        LocalDate today = LocalDate.now();
+        VersionedView<List<ExamDTO>> exams = examService.getTodaysExams(userId, today);
+        ScheduleVersion version = exams.getVersion();
+        LocalDateTime modified = version.getUpdatedAt().isAfter(today.atStartOfDay())
+                ? version.getUpdatedAt()
+                : today.atStartOfDay();
+        if (webRequest.checkNotModified(scheduleVersionService.etag(version, "today-" + today),
+                scheduleVersionService.lastModified(modified))) {
+            return null;
+        }
+
+        return ResponseEntity.ok(exams.getValue());
     }
 
     // GET /api/exams/range?userId=1&startDate=2024-11-01&endDate=2024-11-30
@@ -59,11 +197,61 @@ public class ExamController {
     public ResponseEntity<List<ExamDTO>> getExamsInRange(
             @RequestParam Long userId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-        List<ExamDTO> exams = examService.getExamsInDateRange(userId, startDate, endDate);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            WebRequest webRequest) {
+        VersionedView<List<ExamDTO>> exams = examService.getExamsInDateRange(userId, startDate, endDate);
+        if (webRequest.checkNotModified(
+                scheduleVersionService.etag(exams.getVersion(), "range", startDate, endDate),
+                scheduleVersionService.lastModified(exams.getVersion()))) {
+            return null;
+        }
+
+        return ResponseEntity.ok(exams.getValue());
+    }
+
+    // GET /api/exams/query?userId=1&status=upcoming&term=Fall 2024&startDate=2024-11-01&endDate=2024-11-30
+    //     &courseIds=1,2&examType=Final&location=Room 1&sort=courseCode,-examDate&limit=50
+    // Get exams matching any combination of filters, sorted (default examDate,examTime)
+    // and capped at limit (default 100, at most 500)
+
+    @GetMapping("/query")
+    public ResponseEntity<List<ExamDTO>> queryExams(
+            @RequestParam Long userId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String term,
+            @RequestParam(required = false) List<Long> courseIds,
+            @RequestParam(required = false) String examType,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) Integer limit,
+            WebRequest webRequest) {
+        ScheduleVersion version = scheduleVersionService.getVersion(userId);
+        if (webRequest.checkNotModified(scheduleVersionService.etag(version, "query",
+                status, startDate, endDate, term, courseIds, examType, location, sort, limit),
+                scheduleVersionService.lastModified(version))) {
+            return null;
+        }
+
+        ExamQueryDTO query = new ExamQueryDTO(status, startDate, endDate, term, courseIds, examType, location,
+                sort, limit);
+        List<ExamDTO> exams = examService.queryExams(userId, query);
         return ResponseEntity.ok(exams);
     }
 
+    // GET /api/exams/conflicts?userId=1
+    // GET /api/exams/conflicts?userId=1&term=Fall 2024
+    // Get every pair of overlapping exams
+
+    @GetMapping("/conflicts")
+    public ResponseEntity<List<ExamConflictDTO>> getConflicts(
+            @RequestParam Long userId,
+            @RequestParam(required = false) String term) {
+        List<ExamConflictDTO> conflicts = examService.findConflicts(userId, term);
+        return ResponseEntity.ok(conflicts);
+    }
+
     // GET /api/exams/1?userId=1
     // Get a single exam by ID
 
@@ -86,6 +274,26 @@ public class ExamController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdExam);
     }
 
+    // POST /api/exams/bulk?userId=1
+    // Create many exams from a JSON array or a CSV body with a header row.
+    // Nothing is saved if any row fails; the response lists every failing row.
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkImportResultDTO<ExamDTO>> importExams(
+            @RequestBody List<ExamDTO> examDTOs,
+            @RequestParam Long userId) {
+        BulkImportResultDTO<ExamDTO> result = examService.importExams(examDTOs, userId);
+        return ResponseEntity.status(result.hasErrors() ? HttpStatus.BAD_REQUEST : HttpStatus.CREATED).body(result);
+    }
+
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public ResponseEntity<BulkImportResultDTO<ExamDTO>> importExamsCsv(
+            @RequestBody String csv,
+            @RequestParam Long userId) {
+        BulkImportResultDTO<ExamDTO> result = examService.importExamsCsv(csv, userId);
+        return ResponseEntity.status(result.hasErrors() ? HttpStatus.BAD_REQUEST : HttpStatus.CREATED).body(result);
+    }
+
     // PUT /api/exams/1?userId=1
     // Update an existing exam
 
@@ -98,26 +306,40 @@ public class ExamController {
         return ResponseEntity.ok(updatedExam);
     }
 
-    // PATCH /api/exams/1/status?userId=1&status=completed
+    // PATCH /api/exams/1/status?userId=1&status=completed&version=3  (version optional)
     // Update only the exam status (for marking as completed)
 
     @PatchMapping("/{id}/status")
     public ResponseEntity<ExamDTO> updateExamStatus(
             @PathVariable Long id,
             @RequestParam String status,
+            @RequestParam(required = false) Long version,
             @RequestParam Long userId) {
-        ExamDTO updatedExam = examService.updateExamStatus(id, status, userId);
+        ExamDTO updatedExam = examService.updateExamStatus(id, status, version, userId);
         return ResponseEntity.ok(updatedExam);
     }
 
-    // DELETE /api/exams/1?userId=1
+    // PATCH /api/exams/status?userId=1&status=completed  (body: [1, 2, 3])
+    // Update the status of many exams at once
+
+    @PatchMapping("/status")
+    public ResponseEntity<BulkStatusResultDTO> updateExamStatuses(
+            @RequestBody List<Long> ids,
+            @RequestParam String status,
+            @RequestParam Long userId) {
+        BulkStatusResultDTO result = examService.updateExamStatuses(ids, status, userId);
+        return ResponseEntity.ok(result);
+    }
+
+    // DELETE /api/exams/1?userId=1&version=3  (version optional)
     // Delete an exam
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteExam(
             @PathVariable Long id,
+            @RequestParam(required = false) Long version,
             @RequestParam Long userId) {
-        examService.deleteExam(id, userId);
+        examService.deleteExam(id, version, userId);
         return ResponseEntity.noContent().build();
     }
 }
@@ -0,0 +1,57 @@
+package com.conestoga.scheduler.controller;
+
+import com.conestoga.scheduler.dto.RolloverJobDTO;
+import com.conestoga.scheduler.dto.RolloverRequestDTO;
+import com.conestoga.scheduler.dto.RolloverResultDTO;
+import com.conestoga.scheduler.service.RolloverService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/rollover")
+@CrossOrigin(origins = "http://localhost:3000")
+public class RolloverController {
+
+    private final RolloverService rolloverService;
+
+    @Autowired
+    public RolloverController(RolloverService rolloverService) {
+        this.rolloverService = rolloverService;
+    }
+
+    // POST /api/rollover?userId=1  (body: {"fromTerm": "Fall 2024", "toTerm": "Fall 2025", "offsetDays": 364})
+    // Copy the user's courses and exams from one term into another
+
+    @PostMapping
+    public ResponseEntity<RolloverResultDTO> rollover(
+            @Valid @RequestBody RolloverRequestDTO request,
+            @RequestParam Long userId) {
+        RolloverResultDTO result = rolloverService.rollover(request, userId);
+        return ResponseEntity.status(HttpStatus.CREATED).body(result);
+    }
+
+    // POST /api/rollover/jobs?userId=1
+    // Start rolling over every user's courses and exams (admins only)
+
+    @PostMapping("/jobs")
+    public ResponseEntity<RolloverJobDTO> startJob(
+            @Valid @RequestBody RolloverRequestDTO request,
+            @RequestParam Long userId) {
+        RolloverJobDTO job = rolloverService.startJob(request, userId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    // GET /api/rollover/jobs/{jobId}?userId=1
+    // Get progress of a rollover job
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<RolloverJobDTO> getJob(
+            @PathVariable String jobId,
+            @RequestParam Long userId) {
+        RolloverJobDTO job = rolloverService.getJob(jobId, userId);
+        return ResponseEntity.ok(job);
+    }
+}
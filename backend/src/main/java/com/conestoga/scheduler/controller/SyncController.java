@@ -0,0 +1,33 @@
+package com.conestoga.scheduler.controller;
+
+import com.conestoga.scheduler.dto.SyncDTO;
+import com.conestoga.scheduler.service.SyncService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/sync")
+@CrossOrigin(origins = "http://localhost:3000")
+public class SyncController {
+
+    private final SyncService syncService;
+
+    @Autowired
+    public SyncController(SyncService syncService) {
+        this.syncService = syncService;
+    }
+
+    // GET /api/sync?userId=1
+    // GET /api/sync?userId=1&since=123456
+    // Get the courses and exams changed since the version returned by the
+    // previous sync, and the ones deleted; without since, the whole schedule
+
+    @GetMapping
+    public ResponseEntity<SyncDTO> sync(
+            @RequestParam Long userId,
+            @RequestParam(required = false) Long since) {
+        SyncDTO changes = syncService.getChanges(userId, since);
+        return ResponseEntity.ok(changes);
+    }
+}
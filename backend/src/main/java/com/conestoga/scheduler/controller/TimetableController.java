@@ -0,0 +1,45 @@
+package com.conestoga.scheduler.controller;
+
+import com.conestoga.scheduler.dto.TimetableJobDTO;
+import com.conestoga.scheduler.dto.TimetableRequestDTO;
+import com.conestoga.scheduler.service.TimetableService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/timetable")
+@CrossOrigin(origins = "http://localhost:3000")
+public class TimetableController {
+
+    private final TimetableService timetableService;
+
+    @Autowired
+    public TimetableController(TimetableService timetableService) {
+        this.timetableService = timetableService;
+    }
+
+    // POST /api/timetable/jobs?userId=1
+    // Start generating a term's exam timetable (admins only)
+
+    @PostMapping("/jobs")
+    public ResponseEntity<TimetableJobDTO> startJob(
+            @Valid @RequestBody TimetableRequestDTO request,
+            @RequestParam Long userId) {
+        TimetableJobDTO job = timetableService.startJob(request, userId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    // GET /api/timetable/jobs/{jobId}?userId=1
+    // Get progress and score of a timetable job
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<TimetableJobDTO> getJob(
+            @PathVariable String jobId,
+            @RequestParam Long userId) {
+        TimetableJobDTO job = timetableService.getJob(jobId, userId);
+        return ResponseEntity.ok(job);
+    }
+}
@@ -0,0 +1,51 @@
+package com.conestoga.scheduler.datasource;
+
+import com.conestoga.scheduler.event.ScheduleChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+// Remembers which users changed their schedule within the stickiness window,
+// so their own reads keep going to the primary until the replicas have had
+// time to catch up. The window starts when the change commits and must be
+// longer than the replication lag.
+//
+// The user a read belongs to is bound to the request thread by
+// RoutingUserInterceptor. The tracker is per node, so with several nodes the
+// load balancer should keep a user on one node for at least the window.
+
+public class ReadYourWritesTracker {
+
+    private static final ThreadLocal<Long> CURRENT_USER = new ThreadLocal<>();
+
+    private final Cache<Long, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(Duration window, long maximumUsers) {
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(maximumUsers)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScheduleChanged(ScheduleChangedEvent event) {
+        recentWriters.put(event.getUserId(), Boolean.TRUE);
+    }
+
+    // True when the current thread serves a user who wrote within the window
+
+    public boolean mustReadPrimary() {
+        Long userId = CURRENT_USER.get();
+        return userId != null && recentWriters.getIfPresent(userId) != null;
+    }
+
+    static void bindUser(Long userId) {
+        CURRENT_USER.set(userId);
+    }
+
+    static void clear() {
+        CURRENT_USER.remove();
+    }
+}
@@ -0,0 +1,11 @@
+package com.conestoga.scheduler.datasource;
+
+// How a read-only transaction picks one of several replicas.
+// Set with scheduler.datasource.replica-policy=round-robin|least-connections.
+
+public enum ReplicaPolicy {
+    // Take the replicas in turn
+    ROUND_ROBIN,
+    // Take the replica whose pool has the fewest connections in use
+    LEAST_CONNECTIONS
+}
@@ -0,0 +1,106 @@
+package com.conestoga.scheduler.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Sends connections for @Transactional(readOnly = true) work to a replica
+// and everything else (writes, non-transactional calls, Flyway) to the
+// primary. Users inside their read-your-writes window stay on the primary.
+//
+// The read-only flag is only known once the transaction has started, so the
+// physical connection is opened lazily at the first statement, when the
+// routing decision is made.
+
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    private static final String PRIMARY = "primary";
+
+    private final HikariDataSource primary;
+    private final List<HikariDataSource> replicas;
+    private final ReplicaPolicy policy;
+    private final ReadYourWritesTracker tracker;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Counter primaryConnections;
+    private final List<Counter> replicaConnections = new ArrayList<>();
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas, ReplicaPolicy policy,
+            ReadYourWritesTracker tracker, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.policy = policy;
+        this.tracker = tracker;
+        this.primaryConnections = meterRegistry.counter("scheduler.datasource.connections", "target", PRIMARY);
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(i, replicas.get(i));
+            replicaConnections.add(meterRegistry.counter("scheduler.datasource.connections",
+                    "target", replicas.get(i).getPoolName()));
+        }
+        Router router = new Router();
+        router.setTargetDataSources(targets);
+        router.setDefaultTargetDataSource(primary);
+        router.afterPropertiesSet();
+        setTargetDataSource(router);
+        afterPropertiesSet();
+    }
+
+    @Override
+    public void close() {
+        for (HikariDataSource replica : replicas) {
+            replica.close();
+        }
+        primary.close();
+    }
+
+    private Object route() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || tracker.mustReadPrimary()) {
+            primaryConnections.increment();
+            return PRIMARY;
+        }
+        int replica = policy == ReplicaPolicy.LEAST_CONNECTIONS ? leastBusyReplica() : nextReplica();
+        replicaConnections.get(replica).increment();
+        return replica;
+    }
+
+    private int nextReplica() {
+        return Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+    }
+
+    // Ties go to the lowest index; pools that have not started count as idle
+
+    private int leastBusyReplica() {
+        int best = 0;
+        int bestActive = Integer.MAX_VALUE;
+        for (int i = 0; i < replicas.size(); i++) {
+            HikariPoolMXBean pool = replicas.get(i).getHikariPoolMXBean();
+            int active = pool != null ? pool.getActiveConnections() : 0;
+            if (active < bestActive) {
+                best = i;
+                bestActive = active;
+            }
+        }
+        return best;
+    }
+
+    private class Router extends AbstractRoutingDataSource {
+
+        @Override
+        protected Object determineCurrentLookupKey() {
+            return route();
+        }
+    }
+}
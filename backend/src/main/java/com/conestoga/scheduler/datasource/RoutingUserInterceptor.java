@@ -0,0 +1,53 @@
+package com.conestoga.scheduler.datasource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.concurrent.Callable;
+
+// Binds the request's userId parameter to the thread that talks to the
+// database, so ReadYourWritesTracker can pin that user's reads to the
+// primary. Streaming responses run on an async thread and are bound there
+// through the callable hooks.
+
+public class RoutingUserInterceptor implements AsyncHandlerInterceptor, CallableProcessingInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ReadYourWritesTracker.bindUser(userId(request.getParameter("userId")));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+            Object handler) {
+        ReadYourWritesTracker.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        ReadYourWritesTracker.clear();
+    }
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        ReadYourWritesTracker.bindUser(userId(request.getParameter("userId")));
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        ReadYourWritesTracker.clear();
+    }
+
+    private static Long userId(String value) {
+        try {
+            return value != null ? Long.valueOf(value) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.conestoga.scheduler.dto;
+
+public class BulkDeleteResultDTO {
+
+    // Courses that do not exist or belong to another user are not counted
+    private long coursesDeleted;
+
+    private long examsDeleted;
+
+    // Constructors
+
+    public BulkDeleteResultDTO() {
+    }
+
+    public BulkDeleteResultDTO(long coursesDeleted, long examsDeleted) {
+        this.coursesDeleted = coursesDeleted;
+        this.examsDeleted = examsDeleted;
+    }
+
+    // Getters and Setters
+    public long getCoursesDeleted() {
+        return coursesDeleted;
+    }
+
+    public void setCoursesDeleted(long coursesDeleted) {
+        this.coursesDeleted = coursesDeleted;
+    }
+
+    public long getExamsDeleted() {
+        return examsDeleted;
+    }
+
+    public void setExamsDeleted(long examsDeleted) {
+        this.examsDeleted = examsDeleted;
+    }
+}
@@ -0,0 +1,66 @@
+package com.conestoga.scheduler.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkImportResultDTO<T> {
+
+    private int received;
+
+    private int imported;
+
+    private List<T> created = new ArrayList<>();
+
+    // Imports are all-or-nothing: when this is not empty nothing was saved
+    private List<BulkRowErrorDTO> errors = new ArrayList<>();
+
+    // Constructors
+
+    public BulkImportResultDTO() {
+    }
+
+    public BulkImportResultDTO(int received) {
+        this.received = received;
+    }
+
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+
+    public void addError(int row, String message) {
+        errors.add(new BulkRowErrorDTO(row, message));
+    }
+
+    // Getters and Setters
+    public int getReceived() {
+        return received;
+    }
+
+    public void setReceived(int received) {
+        this.received = received;
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+
+    public List<T> getCreated() {
+        return created;
+    }
+
+    public void setCreated(List<T> created) {
+        this.created = created;
+    }
+
+    public List<BulkRowErrorDTO> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<BulkRowErrorDTO> errors) {
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,36 @@
+package com.conestoga.scheduler.dto;
+
+public class BulkRowErrorDTO {
+
+    // 1-based position of the row in the submitted array or CSV body
+    private int row;
+
+    private String message;
+
+    // Constructors
+
+    public BulkRowErrorDTO() {
+    }
+
+    public BulkRowErrorDTO(int row, String message) {
+        this.row = row;
+        this.message = message;
+    }
+
+    // Getters and Setters
+    public int getRow() {
+        return row;
+    }
+
+    public void setRow(int row) {
+        this.row = row;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,36 @@
+package com.conestoga.scheduler.dto;
+
+public class BulkStatusResultDTO {
+
+    private int requested;
+
+    // IDs that do not exist or belong to another user are not counted
+    private int updated;
+
+    // Constructors
+
+    public BulkStatusResultDTO() {
+    }
+
+    public BulkStatusResultDTO(int requested, int updated) {
+        this.requested = requested;
+        this.updated = updated;
+    }
+
+    // Getters and Setters
+    public int getRequested() {
+        return requested;
+    }
+
+    public void setRequested(int requested) {
+        this.requested = requested;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(int updated) {
+        this.updated = updated;
+    }
+}
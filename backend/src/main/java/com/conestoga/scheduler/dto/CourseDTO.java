@@ -2,8 +2,11 @@ package com.conestoga.scheduler.dto;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import java.io.Serializable;
 
-public class CourseDTO {
+public class CourseDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private Long id;
 
@@ -18,6 +21,9 @@ public class CourseDTO {
     @NotBlank(message = "Term is required")
     private String term;
 
+    // Row version as read; send it back on update to reject a stale edit
+    private Long version;
+
     // Constructors
 
     public CourseDTO() {
@@ -71,4 +77,12 @@ public class CourseDTO {
     public void setTerm(String term) {
         this.term = term;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
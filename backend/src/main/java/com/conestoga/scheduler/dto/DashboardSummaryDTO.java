@@ -0,0 +1,86 @@
+package com.conestoga.scheduler.dto;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class DashboardSummaryDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long totalExams;
+    private long upcomingExams;
+    private long completedExams;
+
+    // Exam counts per course term, and per ISO week of the exam date ("2026-W42")
+    private LinkedHashMap<String, Long> examsByTerm = new LinkedHashMap<>();
+    private LinkedHashMap<String, Long> examsByWeek = new LinkedHashMap<>();
+
+    // Earliest upcoming exam; null when nothing is upcoming
+    private LocalDate nextExamDate;
+    private LocalTime nextExamTime;
+
+    // Constructors
+
+    public DashboardSummaryDTO() {
+    }
+
+    // Getters and Setters
+    public long getTotalExams() {
+        return totalExams;
+    }
+
+    public void setTotalExams(long totalExams) {
+        this.totalExams = totalExams;
+    }
+
+    public long getUpcomingExams() {
+        return upcomingExams;
+    }
+
+    public void setUpcomingExams(long upcomingExams) {
+        this.upcomingExams = upcomingExams;
+    }
+
+    public long getCompletedExams() {
+        return completedExams;
+    }
+
+    public void setCompletedExams(long completedExams) {
+        this.completedExams = completedExams;
+    }
+
+    public Map<String, Long> getExamsByTerm() {
+        return examsByTerm;
+    }
+
+    public void setExamsByTerm(Map<String, Long> examsByTerm) {
+        this.examsByTerm = new LinkedHashMap<>(examsByTerm);
+    }
+
+    public Map<String, Long> getExamsByWeek() {
+        return examsByWeek;
+    }
+
+    public void setExamsByWeek(Map<String, Long> examsByWeek) {
+        this.examsByWeek = new LinkedHashMap<>(examsByWeek);
+    }
+
+    public LocalDate getNextExamDate() {
+        return nextExamDate;
+    }
+
+    public void setNextExamDate(LocalDate nextExamDate) {
+        this.nextExamDate = nextExamDate;
+    }
+
+    public LocalTime getNextExamTime() {
+        return nextExamTime;
+    }
+
+    public void setNextExamTime(LocalTime nextExamTime) {
+        this.nextExamTime = nextExamTime;
+    }
+}
@@ -0,0 +1,35 @@
+package com.conestoga.scheduler.dto;
+
+public class ExamConflictDTO {
+
+    private ExamDTO first;
+
+    private ExamDTO second;
+
+    // Constructors
+
+    public ExamConflictDTO() {
+    }
+
+    public ExamConflictDTO(ExamDTO first, ExamDTO second) {
+        this.first = first;
+        this.second = second;
+    }
+
+    // Getters and Setters
+    public ExamDTO getFirst() {
+        return first;
+    }
+
+    public void setFirst(ExamDTO first) {
+        this.first = first;
+    }
+
+    public ExamDTO getSecond() {
+        return second;
+    }
+
+    public void setSecond(ExamDTO second) {
+        this.second = second;
+    }
+}
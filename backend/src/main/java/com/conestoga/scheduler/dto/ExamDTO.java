@@ -2,10 +2,13 @@ package com.conestoga.scheduler.dto;
 
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.NotBlank;
+import java.io.Serializable;
 import java.time.LocalDate;
 import java.time.LocalTime;
 
-public class ExamDTO {
+public class ExamDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private Long id;
 
@@ -32,6 +35,9 @@ public class ExamDTO {
     private String courseCode;
     private String courseName;
 
+    // Row version as read; send it back on update to reject a stale edit
+    private Long version;
+
     // Constructors
 
     public ExamDTO() {
@@ -133,4 +139,12 @@ public class ExamDTO {
     public void setCourseName(String courseName) {
         this.courseName = courseName;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,121 @@
+package com.conestoga.scheduler.dto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Filters of GET /api/exams/query; every field is optional
+
+public class ExamQueryDTO {
+
+    // "upcoming" or "completed"
+    private String status;
+
+    // Inclusive bounds on the exam date
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    private String term;
+
+    private List<Long> courseIds = new ArrayList<>();
+
+    private String examType;
+
+    private String location;
+
+    // Comma-separated sort keys, "-" for descending, e.g. "courseCode,-examDate"
+    private String sort;
+
+    private Integer limit;
+
+    // Constructors
+
+    public ExamQueryDTO() {
+    }
+
+    public ExamQueryDTO(String status, LocalDate startDate, LocalDate endDate, String term, List<Long> courseIds,
+            String examType, String location, String sort, Integer limit) {
+        this.status = status;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.term = term;
+        this.courseIds = courseIds != null ? courseIds : new ArrayList<>();
+        this.examType = examType;
+        this.location = location;
+        this.sort = sort;
+        this.limit = limit;
+    }
+
+    // Getters and Setters
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public String getTerm() {
+        return term;
+    }
+
+    public void setTerm(String term) {
+        this.term = term;
+    }
+
+    public List<Long> getCourseIds() {
+        return courseIds;
+    }
+
+    public void setCourseIds(List<Long> courseIds) {
+        this.courseIds = courseIds;
+    }
+
+    public String getExamType() {
+        return examType;
+    }
+
+    public void setExamType(String examType) {
+        this.examType = examType;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public void setSort(String sort) {
+        this.sort = sort;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+}
@@ -0,0 +1,48 @@
+package com.conestoga.scheduler.dto;
+
+import java.time.LocalDateTime;
+
+public class FreeSlotDTO {
+
+    private LocalDateTime start;
+
+    private LocalDateTime end;
+
+    private long minutes;
+
+    // Constructors
+
+    public FreeSlotDTO() {
+    }
+
+    public FreeSlotDTO(LocalDateTime start, LocalDateTime end, long minutes) {
+        this.start = start;
+        this.end = end;
+        this.minutes = minutes;
+    }
+
+    // Getters and Setters
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    public void setStart(LocalDateTime start) {
+        this.start = start;
+    }
+
+    public LocalDateTime getEnd() {
+        return end;
+    }
+
+    public void setEnd(LocalDateTime end) {
+        this.end = end;
+    }
+
+    public long getMinutes() {
+        return minutes;
+    }
+
+    public void setMinutes(long minutes) {
+        this.minutes = minutes;
+    }
+}
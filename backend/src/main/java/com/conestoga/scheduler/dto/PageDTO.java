@@ -0,0 +1,49 @@
+package com.conestoga.scheduler.dto;
+
+import java.util.List;
+
+public class PageDTO<T> {
+
+    private List<T> items;
+
+    // Opaque continuation token, null when this is the last page
+    private String nextCursor;
+
+    private boolean hasMore;
+
+    // Constructors
+
+    public PageDTO() {
+    }
+
+    public PageDTO(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+    }
+
+    // Getters and Setters
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
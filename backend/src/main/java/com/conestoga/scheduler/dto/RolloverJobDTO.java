@@ -0,0 +1,146 @@
+package com.conestoga.scheduler.dto;
+
+import java.time.LocalDateTime;
+
+public class RolloverJobDTO {
+
+    private String jobId;
+
+    private String fromTerm;
+
+    private String toTerm;
+
+    // RUNNING, COMPLETED or FAILED
+    private String status;
+
+    // Share of the users rolled over so far, 0.0 to 1.0
+    private double progress;
+
+    // Users with courses in the source term
+    private long users;
+
+    private long usersDone;
+
+    private long coursesCreated;
+
+    private long examsCreated;
+
+    // Users left out because their copied exams would overlap existing ones
+    private long usersSkipped;
+
+    private String message;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    // Constructors
+
+    public RolloverJobDTO() {
+    }
+
+    // Getters and Setters
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public String getFromTerm() {
+        return fromTerm;
+    }
+
+    public void setFromTerm(String fromTerm) {
+        this.fromTerm = fromTerm;
+    }
+
+    public String getToTerm() {
+        return toTerm;
+    }
+
+    public void setToTerm(String toTerm) {
+        this.toTerm = toTerm;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public double getProgress() {
+        return progress;
+    }
+
+    public void setProgress(double progress) {
+        this.progress = progress;
+    }
+
+    public long getUsers() {
+        return users;
+    }
+
+    public void setUsers(long users) {
+        this.users = users;
+    }
+
+    public long getUsersDone() {
+        return usersDone;
+    }
+
+    public void setUsersDone(long usersDone) {
+        this.usersDone = usersDone;
+    }
+
+    public long getCoursesCreated() {
+        return coursesCreated;
+    }
+
+    public void setCoursesCreated(long coursesCreated) {
+        this.coursesCreated = coursesCreated;
+    }
+
+    public long getExamsCreated() {
+        return examsCreated;
+    }
+
+    public void setExamsCreated(long examsCreated) {
+        this.examsCreated = examsCreated;
+    }
+
+    public long getUsersSkipped() {
+        return usersSkipped;
+    }
+
+    public void setUsersSkipped(long usersSkipped) {
+        this.usersSkipped = usersSkipped;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+}
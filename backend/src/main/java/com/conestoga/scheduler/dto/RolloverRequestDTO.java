@@ -0,0 +1,51 @@
+package com.conestoga.scheduler.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public class RolloverRequestDTO {
+
+    @NotBlank(message = "Source term is required")
+    private String fromTerm;
+
+    @NotBlank(message = "Target term is required")
+    private String toTerm;
+
+    // Added to every copied exam date, e.g. 119 for Winter 2025 -> Spring 2025
+    private int offsetDays;
+
+    // Constructors
+
+    public RolloverRequestDTO() {
+    }
+
+    public RolloverRequestDTO(String fromTerm, String toTerm, int offsetDays) {
+        this.fromTerm = fromTerm;
+        this.toTerm = toTerm;
+        this.offsetDays = offsetDays;
+    }
+
+    // Getters and Setters
+    public String getFromTerm() {
+        return fromTerm;
+    }
+
+    public void setFromTerm(String fromTerm) {
+        this.fromTerm = fromTerm;
+    }
+
+    public String getToTerm() {
+        return toTerm;
+    }
+
+    public void setToTerm(String toTerm) {
+        this.toTerm = toTerm;
+    }
+
+    public int getOffsetDays() {
+        return offsetDays;
+    }
+
+    public void setOffsetDays(int offsetDays) {
+        this.offsetDays = offsetDays;
+    }
+}
@@ -0,0 +1,36 @@
+package com.conestoga.scheduler.dto;
+
+public class RolloverResultDTO {
+
+    // Courses already present in the target term (same code) are not copied again
+    private int coursesCreated;
+
+    private int examsCreated;
+
+    // Constructors
+
+    public RolloverResultDTO() {
+    }
+
+    public RolloverResultDTO(int coursesCreated, int examsCreated) {
+        this.coursesCreated = coursesCreated;
+        this.examsCreated = examsCreated;
+    }
+
+    // Getters and Setters
+    public int getCoursesCreated() {
+        return coursesCreated;
+    }
+
+    public void setCoursesCreated(int coursesCreated) {
+        this.coursesCreated = coursesCreated;
+    }
+
+    public int getExamsCreated() {
+        return examsCreated;
+    }
+
+    public void setExamsCreated(int examsCreated) {
+        this.examsCreated = examsCreated;
+    }
+}
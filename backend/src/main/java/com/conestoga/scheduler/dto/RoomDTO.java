@@ -0,0 +1,40 @@
+package com.conestoga.scheduler.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+
+public class RoomDTO {
+
+    @NotBlank(message = "Room name is required")
+    private String name;
+
+    @Positive(message = "Room capacity must be positive")
+    private int capacity;
+
+    // Constructors
+
+    public RoomDTO() {
+    }
+
+    public RoomDTO(String name, int capacity) {
+        this.name = name;
+        this.capacity = capacity;
+    }
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+}
@@ -0,0 +1,49 @@
+package com.conestoga.scheduler.dto;
+
+public class ScheduleChangeDTO {
+
+    // COURSE or EXAM
+    private String entityType;
+
+    // CREATED, UPDATED, STATUS_CHANGED or DELETED
+    private String action;
+
+    // Null when several rows changed at once
+    private Long entityId;
+
+    // Constructors
+
+    public ScheduleChangeDTO() {
+    }
+
+    public ScheduleChangeDTO(String entityType, String action, Long entityId) {
+        this.entityType = entityType;
+        this.action = action;
+        this.entityId = entityId;
+    }
+
+    // Getters and Setters
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(String entityType) {
+        this.entityType = entityType;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public void setAction(String action) {
+        this.action = action;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(Long entityId) {
+        this.entityId = entityId;
+    }
+}
@@ -0,0 +1,76 @@
+package com.conestoga.scheduler.dto;
+
+import java.util.List;
+
+public class SyncDTO {
+
+    // Pass back as ?since= on the next sync
+    private Long version;
+
+    // True when courses and exams are the complete schedule and the client
+    // should replace its copy instead of applying the changes
+    private boolean fullSync;
+
+    private List<CourseDTO> courses;
+
+    private List<ExamDTO> exams;
+
+    // Deleted since the requested version; exams of a deleted course are
+    // not always listed and go with their course
+    private List<TombstoneDTO> deleted;
+
+    // Constructors
+
+    public SyncDTO() {
+    }
+
+    public SyncDTO(Long version, boolean fullSync, List<CourseDTO> courses, List<ExamDTO> exams,
+            List<TombstoneDTO> deleted) {
+        this.version = version;
+        this.fullSync = fullSync;
+        this.courses = courses;
+        this.exams = exams;
+        this.deleted = deleted;
+    }
+
+    // Getters and Setters
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public boolean isFullSync() {
+        return fullSync;
+    }
+
+    public void setFullSync(boolean fullSync) {
+        this.fullSync = fullSync;
+    }
+
+    public List<CourseDTO> getCourses() {
+        return courses;
+    }
+
+    public void setCourses(List<CourseDTO> courses) {
+        this.courses = courses;
+    }
+
+    public List<ExamDTO> getExams() {
+        return exams;
+    }
+
+    public void setExams(List<ExamDTO> exams) {
+        this.exams = exams;
+    }
+
+    public List<TombstoneDTO> getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(List<TombstoneDTO> deleted) {
+        this.deleted = deleted;
+    }
+}
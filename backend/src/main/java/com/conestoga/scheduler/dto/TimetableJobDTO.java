@@ -0,0 +1,155 @@
+package com.conestoga.scheduler.dto;
+
+import java.time.LocalDateTime;
+
+public class TimetableJobDTO {
+
+    private String jobId;
+
+    private String term;
+
+    // RUNNING, COMPLETED or FAILED
+    private String status;
+
+    // Share of the time budget used so far, 0.0 to 1.0
+    private double progress;
+
+    private int courses;
+
+    private Long initialScore;
+
+    // Lower is better; 0 means no clashes, no back-to-back exams and everyone seated
+    private Long bestScore;
+
+    private Integer conflicts;
+
+    private Integer backToBack;
+
+    private Integer unseatedStudents;
+
+    private Integer examsCreated;
+
+    private String message;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    // Constructors
+
+    public TimetableJobDTO() {
+    }
+
+    // Getters and Setters
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public String getTerm() {
+        return term;
+    }
+
+    public void setTerm(String term) {
+        this.term = term;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public double getProgress() {
+        return progress;
+    }
+
+    public void setProgress(double progress) {
+        this.progress = progress;
+    }
+
+    public int getCourses() {
+        return courses;
+    }
+
+    public void setCourses(int courses) {
+        this.courses = courses;
+    }
+
+    public Long getInitialScore() {
+        return initialScore;
+    }
+
+    public void setInitialScore(Long initialScore) {
+        this.initialScore = initialScore;
+    }
+
+    public Long getBestScore() {
+        return bestScore;
+    }
+
+    public void setBestScore(Long bestScore) {
+        this.bestScore = bestScore;
+    }
+
+    public Integer getConflicts() {
+        return conflicts;
+    }
+
+    public void setConflicts(Integer conflicts) {
+        this.conflicts = conflicts;
+    }
+
+    public Integer getBackToBack() {
+        return backToBack;
+    }
+
+    public void setBackToBack(Integer backToBack) {
+        this.backToBack = backToBack;
+    }
+
+    public Integer getUnseatedStudents() {
+        return unseatedStudents;
+    }
+
+    public void setUnseatedStudents(Integer unseatedStudents) {
+        this.unseatedStudents = unseatedStudents;
+    }
+
+    public Integer getExamsCreated() {
+        return examsCreated;
+    }
+
+    public void setExamsCreated(Integer examsCreated) {
+        this.examsCreated = examsCreated;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+}
@@ -0,0 +1,111 @@
+package com.conestoga.scheduler.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class TimetableRequestDTO {
+
+    @NotBlank(message = "Term is required")
+    private String term;
+
+    @NotEmpty(message = "At least one exam day is required")
+    private List<LocalDate> days = new ArrayList<>();
+
+    // Start times of the exam slots offered on every day
+    @NotEmpty(message = "At least one slot time is required")
+    private List<LocalTime> slotTimes = new ArrayList<>();
+
+    // Leave empty to ignore room capacity
+    @Valid
+    private List<RoomDTO> rooms = new ArrayList<>();
+
+    @NotBlank(message = "Exam type is required")
+    private String examType = "Final";
+
+    // Exam length in hours
+    private Double duration = 3.0;
+
+    @NotNull(message = "Time budget is required")
+    @Positive(message = "Time budget must be positive")
+    private Long timeBudgetMillis = 10_000L;
+
+    // When false the job only reports the score and nothing is saved
+    private boolean persist = true;
+
+    // Constructors
+
+    public TimetableRequestDTO() {
+    }
+
+    // Getters and Setters
+    public String getTerm() {
+        return term;
+    }
+
+    public void setTerm(String term) {
+        this.term = term;
+    }
+
+    public List<LocalDate> getDays() {
+        return days;
+    }
+
+    public void setDays(List<LocalDate> days) {
+        this.days = days;
+    }
+
+    public List<LocalTime> getSlotTimes() {
+        return slotTimes;
+    }
+
+    public void setSlotTimes(List<LocalTime> slotTimes) {
+        this.slotTimes = slotTimes;
+    }
+
+    public List<RoomDTO> getRooms() {
+        return rooms;
+    }
+
+    public void setRooms(List<RoomDTO> rooms) {
+        this.rooms = rooms;
+    }
+
+    public String getExamType() {
+        return examType;
+    }
+
+    public void setExamType(String examType) {
+        this.examType = examType;
+    }
+
+    public Double getDuration() {
+        return duration;
+    }
+
+    public void setDuration(Double duration) {
+        this.duration = duration;
+    }
+
+    public Long getTimeBudgetMillis() {
+        return timeBudgetMillis;
+    }
+
+    public void setTimeBudgetMillis(Long timeBudgetMillis) {
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+
+    public boolean isPersist() {
+        return persist;
+    }
+
+    public void setPersist(boolean persist) {
+        this.persist = persist;
+    }
+}
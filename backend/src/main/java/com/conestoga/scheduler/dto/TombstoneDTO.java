@@ -0,0 +1,36 @@
+package com.conestoga.scheduler.dto;
+
+public class TombstoneDTO {
+
+    // COURSE or EXAM
+    private String entityType;
+
+    private Long entityId;
+
+    // Constructors
+
+    public TombstoneDTO() {
+    }
+
+    public TombstoneDTO(String entityType, Long entityId) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+    }
+
+    // Getters and Setters
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(String entityType) {
+        this.entityType = entityType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(Long entityId) {
+        this.entityId = entityId;
+    }
+}
@@ -7,8 +7,10 @@ import java.time.LocalDateTime;
 @Table(name = "courses")
 public class Course {
     
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "courses_seq")
+    @SequenceGenerator(name = "courses_seq", sequenceName = "courses_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -28,6 +30,19 @@ public class Course {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
+    // Maintained by database triggers (see V3__change_versions.sql): id of the
+    // transaction that last wrote the row, and when
+    @Column(name = "change_version", insertable = false, updatable = false)
+    private Long changeVersion;
+    
+    @Column(name = "updated_at", insertable = false, updatable = false)
+    private LocalDateTime updatedAt;
+    
+    // Optimistic lock, also checked and incremented by the owner-scoped
+    // UPDATE and DELETE statements in the repository
+    @Version
+    private Long version;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -101,4 +116,16 @@ public class Course {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
-}
\ No newline at end of file
+    
+    public Long getChangeVersion() {
+        return changeVersion;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+}
@@ -9,8 +9,10 @@ import java.time.LocalDateTime;
 @Table(name = "exams")
 public class Exam {
     
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "exams_seq")
+    @SequenceGenerator(name = "exams_seq", sequenceName = "exams_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -37,6 +39,19 @@ public class Exam {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
+    // Maintained by database triggers (see V3__change_versions.sql): id of the
+    // transaction that last wrote the row, and when
+    @Column(name = "change_version", insertable = false, updatable = false)
+    private Long changeVersion;
+    
+    @Column(name = "updated_at", insertable = false, updatable = false)
+    private LocalDateTime updatedAt;
+    
+    // Optimistic lock, also checked and incremented by the owner-scoped
+    // UPDATE and DELETE statements in the repository
+    @Version
+    private Long version;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -129,4 +144,16 @@ public class Exam {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
-}
\ No newline at end of file
+    
+    public Long getChangeVersion() {
+        return changeVersion;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+}
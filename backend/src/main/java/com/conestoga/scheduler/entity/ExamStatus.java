@@ -2,5 +2,27 @@ package com.conestoga.scheduler.entity;
 
 public enum ExamStatus {
     UPCOMING,
-    COMPLETED
-}
\ No newline at end of file
+    COMPLETED;
+
+    private static final ExamStatus[] VALUES = values();
+
+    // Lowercase form used by the API, computed once instead of per DTO
+    private final String label = name().toLowerCase();
+
+    public String getLabel() {
+        return label;
+    }
+
+    // Case-insensitive parse of an API status ("upcoming", "COMPLETED", ...)
+    // without allocating an uppercased copy. Throws IllegalArgumentException
+    // like valueOf for unknown values.
+
+    public static ExamStatus fromLabel(String status) {
+        for (ExamStatus value : VALUES) {
+            if (value.name().equalsIgnoreCase(status)) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("No exam status " + status);
+    }
+}
@@ -0,0 +1,57 @@
+package com.conestoga.scheduler.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// One row per user, bumped in the same transaction as every change to the
+// user's courses or exams. Conditional GETs compare against it.
+
+@Entity
+@Table(name = "schedule_versions")
+public class ScheduleVersion {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public ScheduleVersion() {
+    }
+
+    public ScheduleVersion(Long userId, Long version, LocalDateTime updatedAt) {
+        this.userId = userId;
+        this.version = version;
+        this.updatedAt = updatedAt;
+    }
+
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,49 @@
+package com.conestoga.scheduler.event;
+
+// Published by the services whenever a user's courses or exams change.
+// Listeners that must only see committed data use @TransactionalEventListener.
+
+public class ScheduleChangedEvent {
+
+    public enum EntityType {
+        COURSE,
+        EXAM
+    }
+
+    public enum Action {
+        CREATED,
+        UPDATED,
+        STATUS_CHANGED,
+        DELETED
+    }
+
+    private final Long userId;
+    private final EntityType entityType;
+    private final Action action;
+
+    // Null when the change touched several rows at once (bulk operations)
+    private final Long entityId;
+
+    public ScheduleChangedEvent(Long userId, EntityType entityType, Action action, Long entityId) {
+        this.userId = userId;
+        this.entityType = entityType;
+        this.action = action;
+        this.entityId = entityId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public EntityType getEntityType() {
+        return entityType;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+}
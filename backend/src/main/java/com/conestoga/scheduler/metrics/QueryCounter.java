@@ -0,0 +1,59 @@
+package com.conestoga.scheduler.metrics;
+
+import org.hibernate.Interceptor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+
+// Counts, on the current thread while a count is active, the SQL statements
+// Hibernate prepares and the entities it loads. Registered as the session
+// factory's statement inspector and interceptor, so JPQL, criteria and
+// native repository queries are all seen.
+
+public class QueryCounter implements StatementInspector, Interceptor {
+
+    private static final ThreadLocal<Counts> COUNTS = new ThreadLocal<>();
+
+    public static void start() {
+        COUNTS.set(new Counts());
+    }
+
+    // Returns the counts since start(), or null if none was active
+
+    public static Counts stop() {
+        Counts counts = COUNTS.get();
+        COUNTS.remove();
+        return counts;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Counts counts = COUNTS.get();
+        if (counts != null) {
+            counts.statements++;
+        }
+        return sql;
+    }
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        Counts counts = COUNTS.get();
+        if (counts != null) {
+            counts.entityLoads++;
+        }
+        return false;
+    }
+
+    public static class Counts {
+
+        private int statements;
+        private int entityLoads;
+
+        public int getStatements() {
+            return statements;
+        }
+
+        public int getEntityLoads() {
+            return entityLoads;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.conestoga.scheduler.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.List;
+
+// Logs every JDBC execution slower than the threshold as one key=value line
+// on the scheduler.slow-query logger, with the request it ran for:
+//
+//   elapsedMs=412 uri=/api/exams/range batch=false statements=1 success=true sql="select ..."
+//
+// Replaces spring.jpa.show-sql, which echoed every statement synchronously.
+
+public class SlowQueryListener implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger("scheduler.slow-query");
+
+    private static final int MAX_SQL_LENGTH = 2000;
+
+    private final long thresholdMillis;
+
+    public SlowQueryListener(Duration threshold) {
+        this.thresholdMillis = threshold.toMillis();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (execInfo.getElapsedTime() < thresholdMillis || !log.isWarnEnabled()) {
+            return;
+        }
+        String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery().replaceAll("\\s+", " ");
+        if (sql.length() > MAX_SQL_LENGTH) {
+            sql = sql.substring(0, MAX_SQL_LENGTH) + "...";
+        }
+        log.warn("elapsedMs={} uri={} batch={} statements={} success={} sql=\"{}\"",
+                execInfo.getElapsedTime(), currentUri(), execInfo.isBatch(),
+                execInfo.isBatch() ? execInfo.getBatchSize() : queryInfoList.size(),
+                execInfo.isSuccess(), sql.replace("\"", "'"));
+    }
+
+    private static String currentUri() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return "-";
+        }
+        Object pattern = attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        return pattern != null ? pattern.toString() : "-";
+    }
+}
@@ -1,9 +1,15 @@
 package com.conestoga.scheduler.repository;
 
 import com.conestoga.scheduler.entity.Course;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CourseRepository extends JpaRepository<Course, Long> {
@@ -14,6 +20,142 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
     // Find courses by user and term
     List<Course> findByUserIdAndTerm(Long userId, String term);
 
-    // Find courses by course code (for searching)
-    List<Course> findByCourseCodeContainingIgnoreCase(String courseCode);
+    // Find every user's courses in a term (timetabling)
+    List<Course> findByTerm(String term);
+
+    // Courses written at or after a sync version (delta sync)
+    @Query("SELECT c FROM Course c WHERE c.userId = :userId AND c.changeVersion >= :since")
+    List<Course> findChangedByUserId(@Param("userId") Long userId, @Param("since") long since);
+
+    // Owner-scoped writes to one course: a single statement carrying the
+    // ownership check and, when version is not null, the optimistic lock. No
+    // row affected means missing, not owned or stale; findOwnerIdById tells which.
+
+    @Query(value = "UPDATE courses SET course_code = :courseCode, course_name = :courseName, "
+            + "instructor = :instructor, term = :term, version = version + 1 "
+            + "WHERE id = :id AND user_id = :userId AND (CAST(:version AS bigint) IS NULL OR version = :version) "
+            + "RETURNING *", nativeQuery = true)
+    Optional<Course> updateByIdForUser(
+            @Param("id") Long id,
+            @Param("userId") Long userId,
+            @Param("version") Long version,
+            @Param("courseCode") String courseCode,
+            @Param("courseName") String courseName,
+            @Param("instructor") String instructor,
+            @Param("term") String term);
+
+    @Modifying
+    @Query("DELETE FROM Course c WHERE c.id = :id AND c.userId = :userId AND (:version IS NULL OR c.version = :version)")
+    int deleteByIdForUser(@Param("id") Long id, @Param("userId") Long userId, @Param("version") Long version);
+
+    // Bulk course deletes: pick the ids (owned by the user, or one chunk of a
+    // term), delete their exams (ExamRepository.deleteByCourseIds), then the courses
+
+    @Query("SELECT c.id FROM Course c WHERE c.id IN :ids AND c.userId = :userId")
+    List<Long> findOwnedIds(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
+
+    @Query("SELECT c.id FROM Course c WHERE c.userId = :userId AND c.term = :term ORDER BY c.id")
+    List<Long> findIdsByUserIdAndTerm(@Param("userId") Long userId, @Param("term") String term, Pageable pageable);
+
+    // (id, userId) of every user's courses in a term
+    @Query("SELECT c.id, c.userId FROM Course c WHERE c.term = :term ORDER BY c.id")
+    List<Object[]> findIdsAndUserIdsByTerm(@Param("term") String term, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Course c WHERE c.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    // Owner of a course, only read after an owner-scoped write affected no row
+    @Query("SELECT c.userId FROM Course c WHERE c.id = :id")
+    Optional<Long> findOwnerIdById(@Param("id") Long id);
+
+    // Copy the users' courses in :fromTerm into :toTerm with their exams, dates
+    // shifted by :offsetDays, as one INSERT ... SELECT statement. Courses whose
+    // code already exists in the target term are skipped, so a retried chunk
+    // does not duplicate anything. Each nextval claims a whole block of the
+    // pooled sequence that Hibernate never hands out, so the ids cannot clash.
+    // Returns (user_id, courses, exams) for every user who got new rows.
+    @Query(value = "WITH source AS ("
+            + "SELECT c.id AS old_id, nextval('courses_seq') AS new_id, c.user_id, c.course_code, c.course_name, "
+            + "c.instructor FROM courses c WHERE c.user_id IN (:userIds) AND c.term = :fromTerm "
+            + "AND NOT EXISTS (SELECT 1 FROM courses t WHERE t.user_id = c.user_id AND t.term = :toTerm "
+            + "AND t.course_code = c.course_code)), "
+            + "new_courses AS (INSERT INTO courses (id, user_id, course_code, course_name, instructor, term, created_at) "
+            + "SELECT new_id, user_id, course_code, course_name, instructor, :toTerm, now() FROM source "
+            + "RETURNING id, user_id), "
+            + "new_exams AS (INSERT INTO exams (id, course_id, exam_type, exam_date, exam_time, location, duration, "
+            + "status, created_at) "
+            + "SELECT nextval('exams_seq'), s.new_id, e.exam_type, e.exam_date + :offsetDays, e.exam_time, "
+            + "e.location, e.duration, 'UPCOMING', now() FROM source s JOIN exams e ON e.course_id = s.old_id "
+            + "RETURNING course_id) "
+            + "SELECT nc.user_id, COUNT(DISTINCT nc.id), COUNT(ne.course_id) "
+            + "FROM new_courses nc LEFT JOIN new_exams ne ON ne.course_id = nc.id GROUP BY nc.user_id",
+            nativeQuery = true)
+    List<Object[]> rolloverTerm(@Param("userIds") Collection<Long> userIds, @Param("fromTerm") String fromTerm,
+            @Param("toTerm") String toTerm, @Param("offsetDays") int offsetDays);
+
+    // Users among :userIds for whom rolloverTerm would copy an exam that overlaps
+    // one they already have, with the same rule as ExamInterval (exams without a
+    // positive duration last one minute). Only exams within a day of each other
+    // can overlap, so existing exams are matched on that date range first.
+    @Query(value = "WITH copied AS ("
+            + "SELECT c.user_id, e.exam_date + :offsetDays AS exam_date, e.exam_time, e.duration "
+            + "FROM courses c JOIN exams e ON e.course_id = c.id WHERE c.user_id IN (:userIds) AND c.term = :fromTerm "
+            + "AND NOT EXISTS (SELECT 1 FROM courses t WHERE t.user_id = c.user_id AND t.term = :toTerm "
+            + "AND t.course_code = c.course_code)) "
+            + "SELECT DISTINCT n.user_id FROM copied n JOIN courses oc ON oc.user_id = n.user_id "
+            + "JOIN exams o ON o.course_id = oc.id AND o.exam_date BETWEEN n.exam_date - 1 AND n.exam_date + 1 "
+            + "WHERE o.exam_date + o.exam_time < n.exam_date + n.exam_time "
+            + "+ GREATEST(ROUND(COALESCE(n.duration, 0) * 60), 1) * INTERVAL '1 minute' "
+            + "AND n.exam_date + n.exam_time < o.exam_date + o.exam_time "
+            + "+ GREATEST(ROUND(COALESCE(o.duration, 0) * 60), 1) * INTERVAL '1 minute'",
+            nativeQuery = true)
+    List<Long> findRolloverConflictUserIds(@Param("userIds") Collection<Long> userIds,
+            @Param("fromTerm") String fromTerm, @Param("toTerm") String toTerm, @Param("offsetDays") int offsetDays);
+
+    // Users with courses in a term, in id order from :after (admin rollover chunks)
+    @Query("SELECT DISTINCT c.userId FROM Course c WHERE c.term = :term AND c.userId > :after ORDER BY c.userId")
+    List<Long> findUserIdsByTermAfter(@Param("term") String term, @Param("after") Long after, Pageable pageable);
+
+    @Query("SELECT COUNT(DISTINCT c.userId) FROM Course c WHERE c.term = :term")
+    long countUsersByTerm(@Param("term") String term);
+
+    // Keyset pagination on (term, courseCode, id)
+
+    @Query("SELECT c FROM Course c WHERE c.userId = :userId ORDER BY c.term ASC, c.courseCode ASC, c.id ASC")
+    List<Course> findFirstPageByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT c FROM Course c WHERE c.userId = :userId "
+            + "AND c.term >= :term "
+            + "AND (c.term > :term "
+            + "OR (c.term = :term AND (c.courseCode > :courseCode "
+            + "OR (c.courseCode = :courseCode AND c.id > :id)))) "
+            + "ORDER BY c.term ASC, c.courseCode ASC, c.id ASC")
+    List<Course> findPageByUserIdAfter(
+            @Param("userId") Long userId,
+            @Param("term") String term,
+            @Param("courseCode") String courseCode,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    // Search code, name and instructor. Prefix matches rank first (code, then
+    // name, then instructor). Substring patterns use the pg_trgm GIN indexes;
+    // patterns shorter than a trigram use the lower(...) text_pattern_ops indexes.
+
+    @Query(value = "SELECT c.* FROM courses c "
+            + "WHERE c.course_code ILIKE :pattern OR c.course_name ILIKE :pattern OR c.instructor ILIKE :pattern "
+            + "ORDER BY CASE WHEN c.course_code ILIKE :prefix THEN 0 "
+            + "WHEN c.course_name ILIKE :prefix THEN 1 "
+            + "WHEN c.instructor ILIKE :prefix THEN 2 ELSE 3 END, c.course_code, c.id "
+            + "LIMIT :limit", nativeQuery = true)
+    List<Course> searchByText(@Param("pattern") String pattern, @Param("prefix") String prefix,
+            @Param("limit") int limit);
+
+    @Query(value = "SELECT c.* FROM courses c "
+            + "WHERE lower(c.course_code) LIKE :prefix OR lower(c.course_name) LIKE :prefix "
+            + "OR lower(c.instructor) LIKE :prefix "
+            + "ORDER BY CASE WHEN lower(c.course_code) LIKE :prefix THEN 0 "
+            + "WHEN lower(c.course_name) LIKE :prefix THEN 1 ELSE 2 END, c.course_code, c.id "
+            + "LIMIT :limit", nativeQuery = true)
+    List<Course> searchByPrefix(@Param("prefix") String prefix, @Param("limit") int limit);
 }
@@ -0,0 +1,121 @@
+package com.conestoga.scheduler.repository;
+
+import com.conestoga.scheduler.entity.ExamStatus;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Typed filters for ExamQueryRepository.query. userId and limit are required;
+// every other field is left out of the query when null or empty.
+
+public class ExamFilter {
+
+    // Sort properties the query understands; id is always the last tie-breaker
+    public static final List<String> SORT_KEYS =
+            List.of("examDate", "examTime", "courseCode", "courseName", "examType", "location", "status", "id");
+
+    private Long userId;
+    private ExamStatus status;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String term;
+    private Collection<Long> courseIds = new ArrayList<>();
+    private String examType;
+    private String location;
+    private Sort sort = Sort.by("examDate", "examTime");
+    private int limit;
+
+    // Constructors
+
+    public ExamFilter() {
+    }
+
+    public ExamFilter(Long userId, int limit) {
+        this.userId = userId;
+        this.limit = limit;
+    }
+
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public ExamStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ExamStatus status) {
+        this.status = status;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public String getTerm() {
+        return term;
+    }
+
+    public void setTerm(String term) {
+        this.term = term;
+    }
+
+    public Collection<Long> getCourseIds() {
+        return courseIds;
+    }
+
+    public void setCourseIds(Collection<Long> courseIds) {
+        this.courseIds = courseIds;
+    }
+
+    public String getExamType() {
+        return examType;
+    }
+
+    public void setExamType(String examType) {
+        this.examType = examType;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public Sort getSort() {
+        return sort;
+    }
+
+    public void setSort(Sort sort) {
+        this.sort = sort;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+}
@@ -0,0 +1,14 @@
+package com.conestoga.scheduler.repository;
+
+import com.conestoga.scheduler.entity.Exam;
+
+import java.util.List;
+
+// Custom fragment of ExamRepository (implemented by ExamQueryRepositoryImpl)
+
+public interface ExamQueryRepository {
+
+    // One Criteria query with only the filters that are set: the user's
+    // exams with their courses fetch-joined, sorted and capped at the limit
+    List<Exam> query(ExamFilter filter);
+}
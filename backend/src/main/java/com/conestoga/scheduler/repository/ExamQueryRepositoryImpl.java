@@ -0,0 +1,78 @@
+package com.conestoga.scheduler.repository;
+
+import com.conestoga.scheduler.entity.Course;
+import com.conestoga.scheduler.entity.Exam;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Every query starts from the user's courses (c.userId), like the fixed
+// finders, so it is served by idx_courses_user_term_code and then
+// idx_exams_course_date_time per course; the optional filters only narrow
+// the rows found that way.
+
+public class ExamQueryRepositoryImpl implements ExamQueryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Exam> query(ExamFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Exam> query = cb.createQuery(Exam.class);
+        Root<Exam> exam = query.from(Exam.class);
+        Join<Exam, Course> course = (Join<Exam, Course>) exam.<Exam, Course>fetch("course");
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(course.get("userId"), filter.getUserId()));
+        if (filter.getTerm() != null) {
+            predicates.add(cb.equal(course.get("term"), filter.getTerm()));
+        }
+        if (filter.getCourseIds() != null && !filter.getCourseIds().isEmpty()) {
+            predicates.add(course.get("id").in(filter.getCourseIds()));
+        }
+        if (filter.getStartDate() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(exam.get("examDate"), filter.getStartDate()));
+        }
+        if (filter.getEndDate() != null) {
+            predicates.add(cb.lessThanOrEqualTo(exam.get("examDate"), filter.getEndDate()));
+        }
+        if (filter.getStatus() != null) {
+            predicates.add(cb.equal(exam.get("status"), filter.getStatus()));
+        }
+        if (filter.getExamType() != null) {
+            predicates.add(cb.equal(exam.get("examType"), filter.getExamType()));
+        }
+        if (filter.getLocation() != null) {
+            predicates.add(cb.equal(exam.get("location"), filter.getLocation()));
+        }
+
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : filter.getSort()) {
+            Expression<?> key = switch (order.getProperty()) {
+                case "courseCode", "courseName" -> course.get(order.getProperty());
+                default -> exam.get(order.getProperty());
+            };
+            orders.add(order.isAscending() ? cb.asc(key) : cb.desc(key));
+        }
+        if (filter.getSort().getOrderFor("id") == null) {
+            orders.add(cb.asc(exam.get("id")));
+        }
+
+        query.select(exam).where(predicates.toArray(new Predicate[0])).orderBy(orders);
+        return entityManager.createQuery(query)
+                .setMaxResults(filter.getLimit())
+                .getResultList();
+    }
+}
@@ -2,35 +2,218 @@ package com.conestoga.scheduler.repository;
 
 import com.conestoga.scheduler.entity.Exam;
 import com.conestoga.scheduler.entity.ExamStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ExamRepository extends JpaRepository<Exam, Long> {
+public interface ExamRepository extends JpaRepository<Exam, Long>, ExamQueryRepository {
+
+    // Queries that feed ExamDTO fetch-join the course so convertToDTO never
+    // triggers a lazy load per distinct course.
 
     // Find all exams for a user (through course relationships)
-    @Query("SELECT e FROM Exam e WHERE e.course.userId = :userId ORDER BY e.examDate ASC")
+    @Query("SELECT e FROM Exam e JOIN FETCH e.course c WHERE c.userId = :userId ORDER BY e.examDate ASC")
     List<Exam> findByCourseUserId(@Param("userId") Long userId);
 
     // Find exams by status for a user
-    @Query("SELECT e FROM Exam e WHERE e.course.userId = :userId AND e.status = :status ORDER BY e.examDate ASC")
+    @Query("SELECT e FROM Exam e JOIN FETCH e.course c WHERE c.userId = :userId AND e.status = :status ORDER BY e.examDate ASC")
     List<Exam> findByCourseUserIdAndStatus(@Param("userId") Long userId, @Param("status") ExamStatus status);
 
     // Find upcoming exams within a date range
-    @Query("SELECT e FROM Exam e WHERE e.course.userId = :userId AND e.examDate BETWEEN :startDate AND :endDate ORDER BY e.examDate ASC")
+    @Query("SELECT e FROM Exam e JOIN FETCH e.course c WHERE c.userId = :userId AND e.examDate BETWEEN :startDate AND :endDate ORDER BY e.examDate ASC")
     List<Exam> findByCourseUserIdAndExamDateBetween(
             @Param("userId") Long userId,
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate);
 
+    // Find a user's exams in one term
+    @Query("SELECT e FROM Exam e JOIN FETCH e.course c WHERE c.userId = :userId AND c.term = :term "
+            + "ORDER BY e.examDate ASC, e.examTime ASC")
+    List<Exam> findByCourseUserIdAndCourseTerm(@Param("userId") Long userId, @Param("term") String term);
+
+    // Keyset pagination on (examDate, examTime, id): each page seeks past the
+    // last row of the previous one, so deep pages cost the same as the first.
+    // The redundant examDate >= bound gives the planner an index range.
+
+    @Query("SELECT e FROM Exam e JOIN FETCH e.course c WHERE c.userId = :userId "
+            + "ORDER BY e.examDate ASC, e.examTime ASC, e.id ASC")
+    List<Exam> findFirstPageByCourseUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT e FROM Exam e JOIN FETCH e.course c WHERE c.userId = :userId "
+            + "AND e.examDate >= :examDate "
+            + "AND (e.examDate > :examDate "
+            + "OR (e.examDate = :examDate AND (e.examTime > :examTime "
+            + "OR (e.examTime = :examTime AND e.id > :id)))) "
+            + "ORDER BY e.examDate ASC, e.examTime ASC, e.id ASC")
+    List<Exam> findPageByCourseUserIdAfter(
+            @Param("userId") Long userId,
+            @Param("examDate") LocalDate examDate,
+            @Param("examTime") LocalTime examTime,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    // Streaming reads for exports; callers must hold a transaction and detach
+    // each row so the persistence context stays small.
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT e FROM Exam e JOIN FETCH e.course c WHERE c.userId = :userId "
+            + "ORDER BY e.examDate ASC, e.examTime ASC, e.id ASC")
+    Stream<Exam> streamByCourseUserId(@Param("userId") Long userId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT e FROM Exam e JOIN FETCH e.course c WHERE c.term = :term "
+            + "ORDER BY c.userId ASC, e.examDate ASC, e.examTime ASC, e.id ASC")
+    Stream<Exam> streamByCourseTerm(@Param("term") String term);
+
+    // Set the status of many exams in one statement; rows of other users are skipped
+    @Modifying
+    @Query("UPDATE Exam e SET e.status = :status, e.version = e.version + 1 WHERE e.id IN :ids "
+            + "AND e.course.id IN (SELECT c.id FROM Course c WHERE c.userId = :userId)")
+    int updateStatusForUser(@Param("ids") Collection<Long> ids, @Param("userId") Long userId,
+            @Param("status") ExamStatus status);
+
+    // Owner-scoped writes to one exam. Each is a single statement carrying the
+    // ownership check and, when version is not null, the optimistic lock. No
+    // row affected means missing, not owned or stale; findOwnerIdById tells
+    // which. Updates return the new row with its course through ExamRow.
+
+    String EXAM_ROW = "e.id AS \"id\", e.course_id AS \"courseId\", c.course_code AS \"courseCode\", "
+            + "c.course_name AS \"courseName\", e.exam_type AS \"examType\", e.exam_date AS \"examDate\", "
+            + "e.exam_time AS \"examTime\", e.location AS \"location\", e.duration AS \"duration\", "
+            + "e.status AS \"status\", e.version AS \"version\"";
+
+    interface ExamRow {
+        Long getId();
+        Long getCourseId();
+        String getCourseCode();
+        String getCourseName();
+        String getExamType();
+        LocalDate getExamDate();
+        LocalTime getExamTime();
+        String getLocation();
+        Double getDuration();
+        ExamStatus getStatus();
+        Long getVersion();
+    }
+
+    @Query(value = "UPDATE exams e SET exam_type = :examType, exam_date = :examDate, exam_time = :examTime, "
+            + "location = :location, duration = :duration, status = :status, version = e.version + 1 "
+            + "FROM courses c WHERE e.id = :id AND c.id = e.course_id AND c.user_id = :userId "
+            + "AND (CAST(:version AS bigint) IS NULL OR e.version = :version) "
+            + "RETURNING " + EXAM_ROW, nativeQuery = true)
+    Optional<ExamRow> updateByIdForUser(
+            @Param("id") Long id,
+            @Param("userId") Long userId,
+            @Param("version") Long version,
+            @Param("examType") String examType,
+            @Param("examDate") LocalDate examDate,
+            @Param("examTime") LocalTime examTime,
+            @Param("location") String location,
+            @Param("duration") Double duration,
+            @Param("status") String status);
+
+    @Query(value = "UPDATE exams e SET status = :status, version = e.version + 1 "
+            + "FROM courses c WHERE e.id = :id AND c.id = e.course_id AND c.user_id = :userId "
+            + "AND (CAST(:version AS bigint) IS NULL OR e.version = :version) "
+            + "RETURNING " + EXAM_ROW, nativeQuery = true)
+    Optional<ExamRow> updateStatusByIdForUser(@Param("id") Long id, @Param("userId") Long userId,
+            @Param("version") Long version, @Param("status") String status);
+
+    @Modifying
+    @Query("DELETE FROM Exam e WHERE e.id = :id AND (:version IS NULL OR e.version = :version) "
+            + "AND e.course.id IN (SELECT c.id FROM Course c WHERE c.userId = :userId)")
+    int deleteByIdForUser(@Param("id") Long id, @Param("userId") Long userId, @Param("version") Long version);
+
+    // Delete a course's exams ahead of the course itself, guarded like the
+    // course delete (owner and optional version) so a rejected delete removes
+    // nothing even before the rollback
+    @Modifying
+    @Query("DELETE FROM Exam e WHERE e.course.id IN (SELECT c.id FROM Course c WHERE c.id = :courseId "
+            + "AND c.userId = :userId AND (:version IS NULL OR c.version = :version))")
+    int deleteByCourseIdForUser(@Param("courseId") Long courseId, @Param("userId") Long userId,
+            @Param("version") Long version);
+
+    // Delete the exams of many courses at once; callers pick the course ids
+    @Modifying
+    @Query("DELETE FROM Exam e WHERE e.course.id IN :courseIds")
+    int deleteByCourseIds(@Param("courseIds") Collection<Long> courseIds);
+
+    // Owner of an exam, only read after an owner-scoped write affected no row
+    @Query("SELECT c.userId FROM Exam e JOIN e.course c WHERE e.id = :id")
+    Optional<Long> findOwnerIdById(@Param("id") Long id);
+
+    // Mark up to :chunk finished UPCOMING exams as COMPLETED without loading
+    // them. SKIP LOCKED lets concurrent sweeps share the work. Returns
+    // (user_id, rows) for every user whose exams changed.
+    @Query(value = "WITH due AS ("
+            + "SELECT e.id FROM exams e WHERE e.status = 'UPCOMING' AND e.exam_date <= :today "
+            + "AND e.exam_date + e.exam_time + COALESCE(e.duration, 0) * INTERVAL '1 hour' <= :now "
+            + "ORDER BY e.id LIMIT :chunk FOR UPDATE SKIP LOCKED), "
+            + "done AS (UPDATE exams e SET status = 'COMPLETED', version = e.version + 1 FROM due WHERE e.id = due.id RETURNING e.course_id) "
+            + "SELECT c.user_id, COUNT(*) FROM done JOIN courses c ON c.id = done.course_id GROUP BY c.user_id",
+            nativeQuery = true)
+    List<Object[]> completeFinishedExams(@Param("today") LocalDate today, @Param("now") LocalDateTime now,
+            @Param("chunk") int chunk);
+
+    // Transaction-scoped PostgreSQL advisory lock, released on commit or rollback
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryAdvisoryTransactionLock(@Param("key") long key);
+
+    // Transaction-scoped advisory lock on (namespace, key) that waits until it is free.
+    // The two-key lock space is separate from the single-key one above.
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(:namespace, :key)", nativeQuery = true)
+    int advisoryTransactionLock(@Param("namespace") int namespace, @Param("key") int key);
+
+    // Ids of the term's courses that already have an exam of a type (timetable re-runs)
+    @Query("SELECT DISTINCT e.course.id FROM Exam e WHERE e.course.term = :term AND e.examType = :examType")
+    List<Long> findCourseIdsByTermAndExamType(@Param("term") String term, @Param("examType") String examType);
+
     // Find all exams for a specific course
     List<Exam> findByCourseId(Long courseId);
 
+    // Find a single exam together with its course (ownership check + DTO in one query)
+    @Query("SELECT e FROM Exam e JOIN FETCH e.course WHERE e.id = :id")
+    Optional<Exam> findByIdWithCourse(@Param("id") Long id);
+
+    // Exams written at or after a sync version (delta sync)
+    @Query("SELECT e FROM Exam e JOIN FETCH e.course c WHERE c.userId = :userId AND e.changeVersion >= :since")
+    List<Exam> findChangedByCourseUserId(@Param("userId") Long userId, @Param("since") long since);
+
+    // Dashboard counts for a user in one pass over their exams. Each grouping
+    // set yields its own rows: per term (status and week null), per status,
+    // per ISO week, and one total row (all three null). nextExam is the
+    // earliest upcoming date and time within each group.
+    @Query(value = "SELECT c.term AS \"term\", e.status AS \"status\", "
+            + "to_char(e.exam_date, 'IYYY-\"W\"IW') AS \"week\", COUNT(*) AS \"exams\", "
+            + "MIN(e.exam_date + e.exam_time) FILTER (WHERE e.status = 'UPCOMING') AS \"nextExam\" "
+            + "FROM exams e JOIN courses c ON c.id = e.course_id WHERE c.user_id = :userId "
+            + "GROUP BY GROUPING SETS ((c.term), (e.status), (to_char(e.exam_date, 'IYYY-\"W\"IW')), ()) "
+            + "ORDER BY 1, 3", nativeQuery = true)
+    List<DashboardRow> summarizeByCourseUserId(@Param("userId") Long userId);
+
+    interface DashboardRow {
+        String getTerm();
+        ExamStatus getStatus();
+        String getWeek();
+        Long getExams();
+        LocalDateTime getNextExam();
+    }
+
     // Find today's exams for a user
-    @Query("SELECT e FROM Exam e WHERE e.course.userId = :userId AND e.examDate = :today ORDER BY e.examTime ASC")
+    @Query("SELECT e FROM Exam e JOIN FETCH e.course c WHERE c.userId = :userId AND e.examDate = :today ORDER BY e.examTime ASC")
     List<Exam> findTodaysExams(@Param("userId") Long userId, @Param("today") LocalDate today);
 }
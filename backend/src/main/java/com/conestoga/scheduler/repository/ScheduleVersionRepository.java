@@ -0,0 +1,25 @@
+package com.conestoga.scheduler.repository;
+
+import com.conestoga.scheduler.entity.ScheduleVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+
+@Repository
+public interface ScheduleVersionRepository extends JpaRepository<ScheduleVersion, Long> {
+
+    // Create the user's row at version 1 or increment it, in one statement
+    @Modifying
+    @Query(value = "INSERT INTO schedule_versions (user_id, version, updated_at) VALUES (:userId, 1, :now) "
+            + "ON CONFLICT (user_id) DO UPDATE SET version = schedule_versions.version + 1, updated_at = :now",
+            nativeQuery = true)
+    int bump(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    // Queue a notification on :channel; PostgreSQL delivers it to every listening
+    // session when the transaction commits, and drops it on rollback
+    @Query(value = "SELECT 1 FROM pg_notify(:channel, :payload)", nativeQuery = true)
+    int sendNotification(@Param("channel") String channel, @Param("payload") String payload);
+}
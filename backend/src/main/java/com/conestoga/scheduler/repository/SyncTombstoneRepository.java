@@ -0,0 +1,37 @@
+package com.conestoga.scheduler.repository;
+
+import com.conestoga.scheduler.entity.SyncTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SyncTombstoneRepository extends JpaRepository<SyncTombstone, Long> {
+
+    // Deletes of a user's courses and exams at or after a sync version
+    @Query("SELECT t FROM SyncTombstone t WHERE t.userId = :userId AND t.changeVersion >= :since")
+    List<SyncTombstone> findByUserIdSince(@Param("userId") Long userId, @Param("since") long since);
+
+    // Oldest transaction id that may still commit: everything below it is
+    // visible to this transaction's next statements
+    @Query(value = "SELECT CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS text) AS bigint)", nativeQuery = true)
+    long currentSyncVersion();
+
+    // Versions at or below the horizon may have lost their tombstones
+    @Query(value = "SELECT horizon FROM sync_compaction WHERE id = 1", nativeQuery = true)
+    long findCompactionHorizon();
+
+    // Delete up to :chunk tombstones older than :cutoff and raise the horizon
+    // past them, in one statement. Returns the number deleted.
+    @Query(value = "WITH old AS ("
+            + "SELECT id FROM sync_tombstones WHERE deleted_at < :cutoff ORDER BY deleted_at LIMIT :chunk), "
+            + "gone AS (DELETE FROM sync_tombstones t USING old WHERE t.id = old.id RETURNING t.change_version), "
+            + "raised AS (UPDATE sync_compaction SET horizon = GREATEST(horizon, (SELECT MAX(change_version) FROM gone)) "
+            + "WHERE id = 1 AND EXISTS (SELECT 1 FROM gone)) "
+            + "SELECT COUNT(*) FROM gone",
+            nativeQuery = true)
+    long compact(@Param("cutoff") LocalDateTime cutoff, @Param("chunk") int chunk);
+}
@@ -0,0 +1,28 @@
+package com.conestoga.scheduler.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+// Admin users are listed in scheduler.admin-user-ids until real authentication exists
+
+@Component
+public class AdminAccess {
+
+    private final Set<Long> adminUserIds;
+
+    public AdminAccess(@Value("${scheduler.admin-user-ids:}") Set<Long> adminUserIds) {
+        this.adminUserIds = Set.copyOf(adminUserIds);
+    }
+
+    public boolean isAdmin(Long userId) {
+        return userId != null && adminUserIds.contains(userId);
+    }
+
+    public void requireAdmin(Long userId) {
+        if (!isAdmin(userId)) {
+            throw new RuntimeException("Unauthorized: admin access required");
+        }
+    }
+}
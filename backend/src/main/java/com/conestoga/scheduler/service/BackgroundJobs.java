@@ -0,0 +1,34 @@
+package com.conestoga.scheduler.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+// Runs the admin background jobs (timetable solver runs and term rollovers)
+// on scheduler.jobs.threads threads of their own. Further jobs wait in line,
+// so long solver runs cannot take threads from streaming responses.
+
+@Component
+public class BackgroundJobs {
+
+    private final ThreadPoolTaskExecutor pool;
+
+    @Autowired
+    public BackgroundJobs(Environment environment, @Value("${scheduler.jobs.threads:2}") int threads) {
+        this.pool = TaskPools.fixed("background-job-", threads, environment);
+    }
+
+    // Queue a job to run on the background pool
+
+    public void submit(Runnable job) {
+        pool.execute(job);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,79 @@
+package com.conestoga.scheduler.service;
+
+import com.conestoga.scheduler.entity.Exam;
+import com.conestoga.scheduler.repository.ExamRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+// iCalendar subscription feed of a user's exams. The encoded feed is kept in
+// the schedule cache, so it is only rebuilt after the user's exams change;
+// most polls are answered with 304 from the cached feed's version.
+//
+// Exam dates and times are wall-clock times at the college, interpreted in
+// scheduler.calendar.zone and written in UTC so every client agrees.
+
+@Service
+@Timed("scheduler.service")
+public class CalendarService {
+
+    private static final String PRODUCT_ID = "-//Conestoga//Exam Scheduler//EN";
+    private static final int BYTES_PER_EXAM = 320;
+
+    private final ExamRepository examRepository;
+    private final ScheduleVersionService scheduleVersionService;
+    private final ZoneId zone;
+
+    @Autowired
+    public CalendarService(ExamRepository examRepository, ScheduleVersionService scheduleVersionService,
+            @Value("${scheduler.calendar.zone:America/Toronto}") ZoneId zone) {
+        this.examRepository = examRepository;
+        this.scheduleVersionService = scheduleVersionService;
+        this.zone = zone;
+    }
+
+    // Get the user's exams as a text/calendar document
+
+    @Transactional(readOnly = true)
+    public VersionedView<byte[]> getCalendar(Long userId) {
+        return scheduleVersionService.cachedView(userId, "calendar.ics", () -> {
+            List<Exam> exams = examRepository.findByCourseUserId(userId);
+            return writeCalendar(exams);
+        });
+    }
+
+    private byte[] writeCalendar(List<Exam> exams) {
+        Instant stamp = Instant.now();
+        IcsWriter ics = new IcsWriter(256 + exams.size() * BYTES_PER_EXAM)
+                .line("BEGIN", "VCALENDAR")
+                .line("VERSION", "2.0")
+                .line("PRODID", PRODUCT_ID)
+                .line("CALSCALE", "GREGORIAN")
+                .line("METHOD", "PUBLISH")
+                .text("X-WR-CALNAME", "Exams");
+
+        for (Exam exam : exams) {
+            LocalDateTime start = exam.getExamDate().atTime(exam.getExamTime());
+            ics.line("BEGIN", "VEVENT")
+                    .line("UID", "exam-" + exam.getId() + "@conestoga-scheduler")
+                    .utc("DTSTAMP", stamp)
+                    .utc("DTSTART", start.atZone(zone).toInstant());
+            if (exam.getDuration() != null) {
+                long minutes = Math.round(exam.getDuration() * 60);
+                ics.utc("DTEND", start.plusMinutes(minutes).atZone(zone).toInstant());
+            }
+            ics.text("SUMMARY", exam.getCourse().getCourseCode() + " " + exam.getExamType())
+                    .text("DESCRIPTION", exam.getCourse().getCourseName())
+                    .text("LOCATION", exam.getLocation())
+                    .line("END", "VEVENT");
+        }
+        return ics.line("END", "VCALENDAR").toByteArray();
+    }
+}
@@ -1,45 +1,121 @@
 package com.conestoga.scheduler.service;
 
+import com.conestoga.scheduler.dto.BulkDeleteResultDTO;
+import com.conestoga.scheduler.dto.BulkImportResultDTO;
 import com.conestoga.scheduler.dto.CourseDTO;
+import com.conestoga.scheduler.dto.PageDTO;
 import com.conestoga.scheduler.entity.Course;
+import com.conestoga.scheduler.event.ScheduleChangedEvent;
 import com.conestoga.scheduler.repository.CourseRepository;
+import com.conestoga.scheduler.repository.ExamRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 @Service
+@Timed("scheduler.service")
 public class CourseService {
 
+    private static final int IMPORT_CHUNK_SIZE = 500;
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+    private static final int MAX_SEARCH_LIMIT = 50;
+    private static final int TRIGRAM_LENGTH = 3;
+    private static final int MAX_BULK_DELETE_IDS = 1000;
+    private static final int DELETE_CHUNK_SIZE = 500;
+
     private final CourseRepository courseRepository;
+    private final ExamRepository examRepository;
+    private final AdminAccess adminAccess;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ScheduleVersionService scheduleVersionService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public CourseService(CourseRepository courseRepository) {
+    public CourseService(CourseRepository courseRepository, ExamRepository examRepository, AdminAccess adminAccess,
+            EntityManager entityManager, TransactionTemplate transactionTemplate, Validator validator,
+            ScheduleVersionService scheduleVersionService, ApplicationEventPublisher eventPublisher) {
         this.courseRepository = courseRepository;
+        this.examRepository = examRepository;
+        this.adminAccess = adminAccess;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.scheduleVersionService = scheduleVersionService;
+        this.eventPublisher = eventPublisher;
     }
 
     // Get all courses for a specific user
 
-    public List<CourseDTO> getAllCourses(Long userId) {
-        List<Course> courses = courseRepository.findByUserId(userId);
-        return courses.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public VersionedView<List<CourseDTO>> getAllCourses(Long userId) {
+        return scheduleVersionService.cachedView(userId, "courses", () -> {
+            List<Course> courses = courseRepository.findByUserId(userId);
+            return convertToDTOs(courses);
+        });
+    }
+
+    // Get one page of courses ordered by term, code and id
+
+    @Transactional(readOnly = true)
+    public PageDTO<CourseDTO> getCoursePage(Long userId, String cursor, Integer size) {
+        int pageSize = PageCursor.pageSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<Course> courses;
+        if (cursor == null || cursor.isEmpty()) {
+            courses = courseRepository.findFirstPageByUserId(userId, limit);
+        } else {
+            String[] key = PageCursor.decode(cursor, 3);
+            try {
+                courses = courseRepository.findPageByUserIdAfter(userId, key[0], key[1], Long.valueOf(key[2]), limit);
+            } catch (NumberFormatException e) {
+                throw new RuntimeException("Invalid page cursor");
+            }
+        }
+
+        // The extra row only tells us whether another page exists
+        String nextCursor = null;
+        if (courses.size() > pageSize) {
+            courses = courses.subList(0, pageSize);
+            Course last = courses.get(pageSize - 1);
+            nextCursor = PageCursor.encode(last.getTerm(), last.getCourseCode(), last.getId().toString());
+        }
+
+        List<CourseDTO> items = convertToDTOs(courses);
+        return new PageDTO<>(items, nextCursor);
     }
 
     // Get courses by user and term
 
-    public List<CourseDTO> getCoursesByTerm(Long userId, String term) {
-        List<Course> courses = courseRepository.findByUserIdAndTerm(userId, term);
-        return courses.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public VersionedView<List<CourseDTO>> getCoursesByTerm(Long userId, String term) {
+        return scheduleVersionService.cachedView(userId, "courses:term=" + term, () -> {
+            List<Course> courses = courseRepository.findByUserIdAndTerm(userId, term);
+            return convertToDTOs(courses);
+        });
     }
 
     // Get a single course by ID
 
+    @Transactional(readOnly = true)
     public CourseDTO getCourseById(Long id, Long userId) {
         Course course = courseRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Course not found with id: " + id));
@@ -56,73 +132,219 @@ public class CourseService {
 
     @Transactional
     public CourseDTO createCourse(CourseDTO courseDTO, Long userId) {
-        Course course = new Course();
-        course.setCourseCode(courseDTO.getCourseCode());
-        course.setCourseName(courseDTO.getCourseName());
-        course.setInstructor(courseDTO.getInstructor());
-        course.setTerm(courseDTO.getTerm());
-        course.setUserId(userId);
+        Course course = toNewCourse(courseDTO, userId);
 
         Course savedCourse = courseRepository.save(course);
+        publishChange(userId, ScheduleChangedEvent.Action.CREATED, savedCourse.getId());
         return convertToDTO(savedCourse);
     }
 
-    // Update an existing course
+    // Create many courses at once. Every row is validated before anything is
+    // saved, then the inserts go out in JDBC batches.
 
     @Transactional
-    public CourseDTO updateCourse(Long id, CourseDTO courseDTO, Long userId) {
-        Course course = courseRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Course not found with id: " + id));
+    public BulkImportResultDTO<CourseDTO> importCourses(List<CourseDTO> courseDTOs, Long userId) {
+        BulkImportResultDTO<CourseDTO> result = new BulkImportResultDTO<>(courseDTOs.size());
+        for (int i = 0; i < courseDTOs.size(); i++) {
+            for (ConstraintViolation<CourseDTO> violation : validator.validate(courseDTOs.get(i))) {
+                result.addError(i + 1, violation.getMessage());
+            }
+        }
+        if (result.hasErrors()) {
+            return result;
+        }
 
-        // Security check
-        if (!course.getUserId().equals(userId)) {
-            throw new RuntimeException("Unauthorized access to course");
+        List<Course> courses = new ArrayList<>(courseDTOs.size());
+        for (CourseDTO courseDTO : courseDTOs) {
+            courses.add(toNewCourse(courseDTO, userId));
         }
 
-        // Update fields
-        course.setCourseCode(courseDTO.getCourseCode());
-        course.setCourseName(courseDTO.getCourseName());
-        course.setInstructor(courseDTO.getInstructor());
-        course.setTerm(courseDTO.getTerm());
+        // Flush and clear per chunk so the persistence context stays small
+        for (int from = 0; from < courses.size(); from += IMPORT_CHUNK_SIZE) {
+            courseRepository.saveAll(courses.subList(from, Math.min(from + IMPORT_CHUNK_SIZE, courses.size())));
+            entityManager.flush();
+            entityManager.clear();
+        }
+
+        publishChange(userId, ScheduleChangedEvent.Action.CREATED, null);
+        result.setImported(courses.size());
+        result.setCreated(convertToDTOs(courses));
+        return result;
+    }
+
+    // Same as importCourses, reading a CSV body with a header row
 
-        Course updatedCourse = courseRepository.save(course);
+    @Transactional
+    public BulkImportResultDTO<CourseDTO> importCoursesCsv(String csv, Long userId) {
+        List<CourseDTO> courseDTOs = new ArrayList<>();
+        for (Map<String, String> row : CsvReader.read(csv)) {
+            courseDTOs.add(new CourseDTO(null, row.get("courseCode"), row.get("courseName"),
+                    row.get("instructor"), row.get("term")));
+        }
+        return importCourses(courseDTOs, userId);
+    }
+
+    // Update an existing course. The ownership check and the optional version
+    // check ride along in the UPDATE, which returns the new row.
+
+    @Transactional
+    public CourseDTO updateCourse(Long id, CourseDTO courseDTO, Long userId) {
+        Course updatedCourse = courseRepository.updateByIdForUser(id, userId, courseDTO.getVersion(),
+                        courseDTO.getCourseCode(), courseDTO.getCourseName(), courseDTO.getInstructor(),
+                        courseDTO.getTerm())
+                .orElseThrow(() -> rejectedWrite(id, userId));
+        publishChange(userId, ScheduleChangedEvent.Action.UPDATED, id);
         return convertToDTO(updatedCourse);
+    }
 
+    // Delete a course and its exams. Both deletes are owner-scoped statements;
+    // the exams go first because of the exams.course_id foreign key.
+
+    @Transactional
+    public void deleteCourse(Long id, Long version, Long userId) {
+        examRepository.deleteByCourseIdForUser(id, userId, version);
+        if (courseRepository.deleteByIdForUser(id, userId, version) == 0) {
+            throw rejectedWrite(id, userId);
+        }
+        publishChange(userId, ScheduleChangedEvent.Action.DELETED, id);
     }
 
-    // Delete a course
+    // Delete many courses and their exams at once; IDs the user does not own are skipped
 
     @Transactional
-    public void deleteCourse(Long id, Long userId) {
-        Course course = courseRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Course not found with id: " + id));
+    public BulkDeleteResultDTO deleteCourses(Collection<Long> ids, Long userId) {
+        Set<Long> distinctIds = new HashSet<>(ids);
+        if (distinctIds.size() > MAX_BULK_DELETE_IDS) {
+            throw new RuntimeException("At most " + MAX_BULK_DELETE_IDS + " courses can be deleted at once");
+        }
+        if (distinctIds.isEmpty()) {
+            return new BulkDeleteResultDTO(0, 0);
+        }
 
-        // Security check
-        if (!course.getUserId().equals(userId)) {
-            throw new RuntimeException("Unauthorized access to course");
+        List<Long> owned = courseRepository.findOwnedIds(distinctIds, userId);
+        if (owned.isEmpty()) {
+            return new BulkDeleteResultDTO(0, 0);
+        }
+        int exams = examRepository.deleteByCourseIds(owned);
+        int courses = courseRepository.deleteByIds(owned);
+        publishChange(userId, ScheduleChangedEvent.Action.DELETED, null);
+        return new BulkDeleteResultDTO(courses, exams);
+    }
+
+    // Delete the user's courses in a term with their exams, or every user's
+    // (admins only), one transaction per chunk of courses
+
+    public BulkDeleteResultDTO deleteTerm(String term, boolean allUsers, Long userId) {
+        if (allUsers) {
+            adminAccess.requireAdmin(userId);
+        }
+
+        long courses = 0;
+        long exams = 0;
+        while (true) {
+            long[] deleted = transactionTemplate.execute(status -> deleteTermChunk(term, allUsers, userId));
+            if (deleted[0] == 0) {
+                break;
+            }
+            courses += deleted[0];
+            exams += deleted[1];
+        }
+        return new BulkDeleteResultDTO(courses, exams);
+    }
+
+    // Returns {courses, exams} deleted; must run in a transaction
+
+    private long[] deleteTermChunk(String term, boolean allUsers, Long userId) {
+        Pageable chunk = PageRequest.ofSize(DELETE_CHUNK_SIZE);
+        List<Long> courseIds = new ArrayList<>(DELETE_CHUNK_SIZE);
+        Set<Long> userIds = new HashSet<>();
+        if (allUsers) {
+            for (Object[] row : courseRepository.findIdsAndUserIdsByTerm(term, chunk)) {
+                courseIds.add((Long) row[0]);
+                userIds.add((Long) row[1]);
+            }
+        } else {
+            courseIds.addAll(courseRepository.findIdsByUserIdAndTerm(userId, term, chunk));
+            userIds.add(userId);
+        }
+        if (courseIds.isEmpty()) {
+            return new long[] { 0, 0 };
+        }
+
+        int exams = examRepository.deleteByCourseIds(courseIds);
+        int courses = courseRepository.deleteByIds(courseIds);
+        for (Long owner : userIds) {
+            publishChange(owner, ScheduleChangedEvent.Action.DELETED, null);
         }
+        return new long[] { courses, exams };
+    }
+
+    // Explain why an owner-scoped write affected no row: the course is gone,
+    // belongs to someone else, or was changed since the client read it
+
+    private RuntimeException rejectedWrite(Long id, Long userId) {
+        Long ownerId = courseRepository.findOwnerIdById(id).orElse(null);
+        if (ownerId == null) {
+            return new RuntimeException("Course not found with id: " + id);
+        }
+        if (!ownerId.equals(userId)) {
+            return new RuntimeException("Unauthorized access to course");
+        }
+        return new ObjectOptimisticLockingFailureException(Course.class, id);
+    }
+
+    // Search courses by code, name or instructor
+
+    @Transactional(readOnly = true)
+    public List<CourseDTO> searchCourses(String query, Integer limit) {
+        String text = query == null ? "" : query.trim().toLowerCase();
+        if (text.isEmpty()) {
+            return new ArrayList<>();
+        }
+        int maxResults = limit == null ? DEFAULT_SEARCH_LIMIT : Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT));
+
+        // Escape LIKE wildcards so user input is matched literally
+        String escaped = text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        List<Course> courses = text.length() < TRIGRAM_LENGTH
+                ? courseRepository.searchByPrefix(escaped + "%", maxResults)
+                : courseRepository.searchByText("%" + escaped + "%", escaped + "%", maxResults);
+        return convertToDTOs(courses);
+    }
+
+    private void publishChange(Long userId, ScheduleChangedEvent.Action action, Long courseId) {
+        eventPublisher.publishEvent(new ScheduleChangedEvent(userId, ScheduleChangedEvent.EntityType.COURSE, action, courseId));
+    }
 
-        courseRepository.delete(course);
+    private Course toNewCourse(CourseDTO courseDTO, Long userId) {
+        Course course = new Course();
+        course.setCourseCode(courseDTO.getCourseCode());
+        course.setCourseName(courseDTO.getCourseName());
+        course.setInstructor(courseDTO.getInstructor());
+        course.setTerm(courseDTO.getTerm());
+        course.setUserId(userId);
+        return course;
     }
 
-    // Search courses by code
+    // Pre-sized, stream-free mapping for the list endpoints
 
-    public List<CourseDTO> searchCourses(String courseCode) {
-        List<Course> courses = courseRepository.findByCourseCodeContainingIgnoreCase(courseCode);
-        return courses.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    static List<CourseDTO> convertToDTOs(List<Course> courses) {
+        List<CourseDTO> dtos = new ArrayList<>(courses.size());
+        for (Course course : courses) {
+            dtos.add(convertToDTO(course));
+        }
+        return dtos;
     }
 
     // Convert course entity to courseDTO
 
-    private CourseDTO convertToDTO(Course course) {
+    static CourseDTO convertToDTO(Course course) {
         CourseDTO dto = new CourseDTO();
         dto.setId(course.getId());
         dto.setCourseCode(course.getCourseCode());
         dto.setCourseName(course.getCourseName());
         dto.setInstructor(course.getInstructor());
         dto.setTerm(course.getTerm());
+        dto.setVersion(course.getVersion());
         return dto;
     }
 }
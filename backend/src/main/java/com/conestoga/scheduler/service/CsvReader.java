@@ -0,0 +1,82 @@
+package com.conestoga.scheduler.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Minimal RFC 4180 reader for bulk imports: the first record is the header,
+// quoted fields may contain commas, quotes ("") and line breaks.
+
+final class CsvReader {
+
+    private CsvReader() {
+    }
+
+    static List<Map<String, String>> read(String text) {
+        List<List<String>> records = parse(text);
+        List<Map<String, String>> rows = new ArrayList<>();
+        if (records.isEmpty()) {
+            return rows;
+        }
+
+        List<String> header = records.get(0);
+        for (int i = 1; i < records.size(); i++) {
+            List<String> record = records.get(i);
+            Map<String, String> row = new HashMap<>();
+            for (int column = 0; column < header.size() && column < record.size(); column++) {
+                String value = record.get(column).trim();
+                row.put(header.get(column).trim(), value.isEmpty() ? null : value);
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static List<List<String>> parse(String text) {
+        List<List<String>> records = new ArrayList<>();
+        List<String> record = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int start = !text.isEmpty() && text.charAt(0) == '\uFEFF' ? 1 : 0;
+
+        for (int i = start; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && i + 1 < text.length() && text.charAt(i + 1) == '\n') {
+                    i++;
+                }
+                endRecord(records, record, field);
+                record = new ArrayList<>();
+            } else {
+                field.append(c);
+            }
+        }
+        endRecord(records, record, field);
+        return records;
+    }
+
+    // Blank lines are skipped rather than treated as empty rows
+
+    private static void endRecord(List<List<String>> records, List<String> record, StringBuilder field) {
+        record.add(field.toString());
+        field.setLength(0);
+        if (record.size() > 1 || !record.get(0).isBlank()) {
+            records.add(record);
+        }
+    }
+}
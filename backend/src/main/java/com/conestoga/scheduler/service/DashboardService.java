@@ -0,0 +1,65 @@
+package com.conestoga.scheduler.service;
+
+import com.conestoga.scheduler.dto.DashboardSummaryDTO;
+import com.conestoga.scheduler.entity.ExamStatus;
+import com.conestoga.scheduler.repository.ExamRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Dashboard counters computed by the database in one grouped query, so the
+// payload stays a few dozen numbers however many exams a user has. Cached as
+// a schedule view, which every write to the user's schedule evicts.
+
+@Service
+@Timed("scheduler.service")
+public class DashboardService {
+
+    private final ExamRepository examRepository;
+    private final ScheduleVersionService scheduleVersionService;
+
+    @Autowired
+    public DashboardService(ExamRepository examRepository, ScheduleVersionService scheduleVersionService) {
+        this.examRepository = examRepository;
+        this.scheduleVersionService = scheduleVersionService;
+    }
+
+    // Get the dashboard summary for a user
+
+    @Transactional(readOnly = true)
+    public VersionedView<DashboardSummaryDTO> getSummary(Long userId) {
+        return scheduleVersionService.cachedView(userId, "dashboard",
+                () -> toSummary(examRepository.summarizeByCourseUserId(userId)));
+    }
+
+    private DashboardSummaryDTO toSummary(List<ExamRepository.DashboardRow> rows) {
+        DashboardSummaryDTO summary = new DashboardSummaryDTO();
+        Map<String, Long> byTerm = new LinkedHashMap<>();
+        Map<String, Long> byWeek = new LinkedHashMap<>();
+        for (ExamRepository.DashboardRow row : rows) {
+            if (row.getTerm() != null) {
+                byTerm.put(row.getTerm(), row.getExams());
+            } else if (row.getWeek() != null) {
+                byWeek.put(row.getWeek(), row.getExams());
+            } else if (row.getStatus() == ExamStatus.UPCOMING) {
+                summary.setUpcomingExams(row.getExams());
+            } else if (row.getStatus() == ExamStatus.COMPLETED) {
+                summary.setCompletedExams(row.getExams());
+            } else {
+                summary.setTotalExams(row.getExams());
+                if (row.getNextExam() != null) {
+                    summary.setNextExamDate(row.getNextExam().toLocalDate());
+                    summary.setNextExamTime(row.getNextExam().toLocalTime());
+                }
+            }
+        }
+        summary.setExamsByTerm(byTerm);
+        summary.setExamsByWeek(byWeek);
+        return summary;
+    }
+}
@@ -0,0 +1,97 @@
+package com.conestoga.scheduler.service;
+
+import com.conestoga.scheduler.event.ScheduleChangedEvent;
+import com.conestoga.scheduler.repository.ExamRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Periodically marks exams whose end (date + time + duration) has passed as
+// COMPLETED. Each chunk is one set-based UPDATE in its own transaction, so no
+// entities are loaded and locks are held briefly. Re-running is harmless
+// because only UPCOMING rows match. A PostgreSQL advisory lock keeps several
+// app nodes from sweeping at the same time.
+
+@Component
+@ConditionalOnProperty(name = "scheduler.sweeper.enabled", havingValue = "true", matchIfMissing = true)
+public class ExamCompletionSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(ExamCompletionSweeper.class);
+
+    // Arbitrary constant identifying this job's advisory lock
+    private static final long SWEEP_LOCK_KEY = 0x5C4ED01EL;
+
+    private final ExamRepository examRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final Counter completedRows;
+    private final Timer sweepTimer;
+
+    @Autowired
+    public ExamCompletionSweeper(ExamRepository examRepository, TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry,
+            @Value("${scheduler.sweeper.chunk-size:1000}") int chunkSize) {
+        this.examRepository = examRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+        this.completedRows = meterRegistry.counter("scheduler.sweeper.completed");
+        this.sweepTimer = meterRegistry.timer("scheduler.sweeper.duration");
+    }
+
+    @Scheduled(fixedDelayString = "${scheduler.sweeper.interval:PT5M}", initialDelayString = "${scheduler.sweeper.initial-delay:PT1M}")
+    public void sweep() {
+        long total = sweepTimer.record(this::sweepChunks);
+        if (total > 0) {
+            log.info("Marked {} finished exams as completed", total);
+        }
+    }
+
+    // Returns the number of exams completed across all chunks
+
+    long sweepChunks() {
+        LocalDateTime now = LocalDateTime.now();
+        long total = 0;
+        while (true) {
+            Long updated = transactionTemplate.execute(status -> sweepChunk(now));
+            if (updated == null || updated < 0) {
+                // Another node holds the sweep lock
+                return total;
+            }
+            total += updated;
+            completedRows.increment(updated);
+            if (updated < chunkSize) {
+                return total;
+            }
+        }
+    }
+
+    private long sweepChunk(LocalDateTime now) {
+        if (!examRepository.tryAdvisoryTransactionLock(SWEEP_LOCK_KEY)) {
+            return -1;
+        }
+
+        long updated = 0;
+        List<Object[]> rowsByUser = examRepository.completeFinishedExams(now.toLocalDate(), now, chunkSize);
+        for (Object[] row : rowsByUser) {
+            Long userId = ((Number) row[0]).longValue();
+            updated += ((Number) row[1]).longValue();
+            eventPublisher.publishEvent(new ScheduleChangedEvent(userId,
+                    ScheduleChangedEvent.EntityType.EXAM, ScheduleChangedEvent.Action.STATUS_CHANGED, null));
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,53 @@
+package com.conestoga.scheduler.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+
+// Half-open [start, end) interval of an exam in epoch minutes.
+// Exams without a positive duration are treated as lasting one minute so
+// two exams starting at the same time still collide.
+
+final class ExamInterval {
+
+    private final Long examId;
+    private final long start;
+    private final long end;
+
+    ExamInterval(Long examId, long start, long end) {
+        this.examId = examId;
+        this.start = start;
+        this.end = end;
+    }
+
+    static ExamInterval of(Long examId, LocalDate examDate, LocalTime examTime, Double durationHours) {
+        long start = toMinutes(LocalDateTime.of(examDate, examTime));
+        long minutes = durationHours != null ? Math.round(durationHours * 60) : 0;
+        return new ExamInterval(examId, start, start + Math.max(minutes, 1));
+    }
+
+    static long toMinutes(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    static LocalDateTime toDateTime(long minutes) {
+        return LocalDateTime.ofEpochSecond(minutes * 60, 0, ZoneOffset.UTC);
+    }
+
+    boolean overlaps(ExamInterval other) {
+        return start < other.end && other.start < end;
+    }
+
+    Long getExamId() {
+        return examId;
+    }
+
+    long getStart() {
+        return start;
+    }
+
+    long getEnd() {
+        return end;
+    }
+}
@@ -1,72 +1,234 @@
 package com.conestoga.scheduler.service;
 
+import com.conestoga.scheduler.dto.BulkImportResultDTO;
+import com.conestoga.scheduler.dto.BulkRowErrorDTO;
+import com.conestoga.scheduler.dto.BulkStatusResultDTO;
+import com.conestoga.scheduler.dto.ExamConflictDTO;
 import com.conestoga.scheduler.dto.ExamDTO;
+import com.conestoga.scheduler.dto.ExamQueryDTO;
+import com.conestoga.scheduler.dto.FreeSlotDTO;
+import com.conestoga.scheduler.dto.PageDTO;
 import com.conestoga.scheduler.entity.Course;
 import com.conestoga.scheduler.entity.Exam;
 import com.conestoga.scheduler.entity.ExamStatus;
+import com.conestoga.scheduler.event.ScheduleChangedEvent;
 import com.conestoga.scheduler.repository.CourseRepository;
+import com.conestoga.scheduler.repository.ExamFilter;
 import com.conestoga.scheduler.repository.ExamRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed("scheduler.service")
 public class ExamService {
 
+    private static final int EXPORT_FLUSH_ROWS = 500;
+    private static final int IMPORT_CHUNK_SIZE = 500;
+    private static final int MAX_BULK_STATUS_IDS = 1000;
+    private static final int DEFAULT_QUERY_LIMIT = 100;
+    private static final int MAX_QUERY_LIMIT = 500;
+    private static final int MAX_FREE_SLOT_DAYS = 366;
+    private static final int MAX_FREE_SLOT_USERS = 20;
+
     private final ExamRepository examRepository;
     private final CourseRepository courseRepository;
+    private final AdminAccess adminAccess;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ScheduleVersionService scheduleVersionService;
+    private final ScheduleLock scheduleLock;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public ExamService(ExamRepository examRepository, CourseRepository courseRepository) {
+    public ExamService(ExamRepository examRepository, CourseRepository courseRepository,
+            AdminAccess adminAccess, EntityManager entityManager, ObjectMapper objectMapper,
+            Validator validator, ScheduleVersionService scheduleVersionService, ScheduleLock scheduleLock,
+            ApplicationEventPublisher eventPublisher) {
         this.examRepository = examRepository;
         this.courseRepository = courseRepository;
+        this.adminAccess = adminAccess;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.scheduleVersionService = scheduleVersionService;
+        this.scheduleLock = scheduleLock;
+        this.eventPublisher = eventPublisher;
     }
 
     // Get all exams for a year
 
-    public List<ExamDTO> getAllExams(Long userId) {
-        List<Exam> exams = examRepository.findByCourseUserId(userId);
-        return exams.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public VersionedView<List<ExamDTO>> getAllExams(Long userId) {
+        return scheduleVersionService.cachedView(userId, "exams", () -> {
+            List<Exam> exams = examRepository.findByCourseUserId(userId);
+            return convertToDTOs(exams);
+        });
     }
 
     // Get exams by status (UPCOMING or COMPLETED)
 
-    public List<ExamDTO> getExamsByStatus(Long userId, String status) {
-        ExamStatus examStatus = ExamStatus.valueOf(status.toUpperCase());
-        List<Exam> exams = examRepository.findByCourseUserIdAndStatus(userId, examStatus);
-        return exams.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public VersionedView<List<ExamDTO>> getExamsByStatus(Long userId, String status) {
+        ExamStatus examStatus = ExamStatus.fromLabel(status);
+        return scheduleVersionService.cachedView(userId, "exams:status=" + examStatus, () -> {
+            List<Exam> exams = examRepository.findByCourseUserIdAndStatus(userId, examStatus);
+            return convertToDTOs(exams);
+        });
     }
 
     // Get current date exam
 
-    public List<ExamDTO> getTodaysExams(Long userId) {
-        List<Exam> exams = examRepository.findTodaysExams(userId, LocalDate.now());
-        return exams.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public VersionedView<List<ExamDTO>> getTodaysExams(Long userId, LocalDate today) {
+        return scheduleVersionService.cachedView(userId, "exams:today=" + today, () -> {
+            List<Exam> exams = examRepository.findTodaysExams(userId, today);
+            return convertToDTOs(exams);
+        });
     }
 
     // Get exams within a date range
 
-    public List<ExamDTO> getExamsInDateRange(Long userId, LocalDate startDate, LocalDate endDate) {
-        List<Exam> exams = examRepository.findByCourseUserIdAndExamDateBetween(userId, startDate, endDate);
-        return exams.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public VersionedView<List<ExamDTO>> getExamsInDateRange(Long userId, LocalDate startDate, LocalDate endDate) {
+        return scheduleVersionService.cachedView(userId, "exams:range=" + startDate + ".." + endDate, () -> {
+            List<Exam> exams = examRepository.findByCourseUserIdAndExamDateBetween(userId, startDate, endDate);
+            return convertToDTOs(exams);
+        });
+    }
+
+    // Get exams matching any combination of filters with one query, capped at MAX_QUERY_LIMIT
+
+    @Transactional(readOnly = true)
+    public List<ExamDTO> queryExams(Long userId, ExamQueryDTO query) {
+        int limit = query.getLimit() == null ? DEFAULT_QUERY_LIMIT : Math.max(1, Math.min(query.getLimit(), MAX_QUERY_LIMIT));
+        ExamFilter filter = new ExamFilter(userId, limit);
+        if (hasText(query.getStatus())) {
+            filter.setStatus(ExamStatus.fromLabel(query.getStatus()));
+        }
+        filter.setStartDate(query.getStartDate());
+        filter.setEndDate(query.getEndDate());
+        filter.setTerm(hasText(query.getTerm()) ? query.getTerm() : null);
+        filter.setCourseIds(query.getCourseIds());
+        filter.setExamType(hasText(query.getExamType()) ? query.getExamType() : null);
+        filter.setLocation(hasText(query.getLocation()) ? query.getLocation() : null);
+        if (hasText(query.getSort())) {
+            filter.setSort(parseSort(query.getSort()));
+        }
+
+        List<Exam> exams = examRepository.query(filter);
+        return convertToDTOs(exams);
+    }
+
+    // Get one page of exams ordered by date, time and id
+
+    @Transactional(readOnly = true)
+    public PageDTO<ExamDTO> getExamPage(Long userId, String cursor, Integer size) {
+        int pageSize = PageCursor.pageSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<Exam> exams;
+        if (cursor == null || cursor.isEmpty()) {
+            exams = examRepository.findFirstPageByCourseUserId(userId, limit);
+        } else {
+            String[] key = PageCursor.decode(cursor, 3);
+            try {
+                exams = examRepository.findPageByCourseUserIdAfter(userId,
+                        LocalDate.parse(key[0]), LocalTime.parse(key[1]), Long.valueOf(key[2]), limit);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new RuntimeException("Invalid page cursor");
+            }
+        }
+
+        // The extra row only tells us whether another page exists
+        String nextCursor = null;
+        if (exams.size() > pageSize) {
+            exams = exams.subList(0, pageSize);
+            Exam last = exams.get(pageSize - 1);
+            nextCursor = PageCursor.encode(last.getExamDate().toString(),
+                    last.getExamTime().toString(), last.getId().toString());
+        }
+
+        List<ExamDTO> items = convertToDTOs(exams);
+        return new PageDTO<>(items, nextCursor);
+    }
+
+    // Only admins may export a whole term. Called before the response starts
+    // streaming, so a rejection is a plain error rather than a broken download.
+
+    public void checkExportAccess(Long userId, String term) {
+        if (term != null) {
+            adminAccess.requireAdmin(userId);
+        }
+    }
+
+    // Write every exam of a user (or of a whole term, admins only) as NDJSON.
+    // Rows are streamed from the database and detached once written, so memory
+    // stays flat regardless of how many exams are exported.
+
+    @Transactional(readOnly = true)
+    public void exportExams(Long userId, String term, OutputStream out) throws IOException {
+        checkExportAccess(userId, term);
+
+        JsonGenerator generator = objectMapper.createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+
+        try (Stream<Exam> exams = term != null
+                ? examRepository.streamByCourseTerm(term)
+                : examRepository.streamByCourseUserId(userId)) {
+            Iterator<Exam> rows = exams.iterator();
+            int written = 0;
+            while (rows.hasNext()) {
+                Exam exam = rows.next();
+                generator.writeObject(convertToDTO(exam));
+                generator.writeRaw('\n');
+                entityManager.detach(exam);
+                entityManager.detach(exam.getCourse());
+                if (++written % EXPORT_FLUSH_ROWS == 0) {
+                    generator.flush();
+                }
+            }
+        }
+        generator.flush();
     }
 
     // Get a single exam by ID
 
+    @Transactional(readOnly = true)
     public ExamDTO getExamById(Long id, Long userId) {
-        Exam exam = examRepository.findById(id)
+        Exam exam = examRepository.findByIdWithCourse(id)
                 .orElseThrow(() -> new RuntimeException("Exam not found with id: " + id));
 
         // Security check: ensure exam's course belongs to the user
@@ -89,79 +251,397 @@ public class ExamService {
             throw new RuntimeException("Unauthorized: Course does not belong to user");
         }
 
+        checkNoConflict(userId, null, examDTO);
+
         // Create the exam
-        Exam exam = new Exam();
-        exam.setCourse(course);
-        exam.setExamType(examDTO.getExamType());
-        exam.setExamDate(examDTO.getExamDate());
-        exam.setExamTime(examDTO.getExamTime());
-        exam.setLocation(examDTO.getLocation());
-        exam.setDuration(examDTO.getDuration());
-        exam.setStatus(ExamStatus.valueOf(examDTO.getStatus().toUpperCase()));
+        Exam exam = toNewExam(examDTO, course);
 
         Exam savedExam = examRepository.save(exam);
+        publishChange(userId, ScheduleChangedEvent.Action.CREATED, savedExam.getId());
         return convertToDTO(savedExam);
     }
 
-    // Update an existing exam
+    // Create many exams at once. Every row is validated and all referenced
+    // courses are resolved with one query before anything is saved, then the
+    // inserts go out in JDBC batches.
 
     @Transactional
-    public ExamDTO updateExam(Long id, ExamDTO examDTO, Long userId) {
-        Exam exam = examRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Exam not found with id: " + id));
+    public BulkImportResultDTO<ExamDTO> importExams(List<ExamDTO> examDTOs, Long userId) {
+        return importExamRows(examDTOs, new BulkImportResultDTO<>(examDTOs.size()), userId);
+    }
 
-        // Security check
-        if (!exam.getCourse().getUserId().equals(userId)) {
-            throw new RuntimeException("Unauthorized access to exam");
+    // Same as importExams, reading a CSV body with a header row
+
+    @Transactional
+    public BulkImportResultDTO<ExamDTO> importExamsCsv(String csv, Long userId) {
+        List<Map<String, String>> rows = CsvReader.read(csv);
+        BulkImportResultDTO<ExamDTO> result = new BulkImportResultDTO<>(rows.size());
+
+        // Unreadable rows are reported here and skipped (null) by importExamRows
+        List<ExamDTO> examDTOs = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Map<String, String> row = rows.get(i);
+            try {
+                examDTOs.add(new ExamDTO(null,
+                        row.get("courseId") != null ? Long.valueOf(row.get("courseId")) : null,
+                        row.get("examType"),
+                        row.get("examDate") != null ? LocalDate.parse(row.get("examDate")) : null,
+                        row.get("examTime") != null ? LocalTime.parse(row.get("examTime")) : null,
+                        row.get("location"),
+                        row.get("duration") != null ? Double.valueOf(row.get("duration")) : null,
+                        row.get("status"),
+                        null, null));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                result.addError(i + 1, "Unreadable value: " + e.getMessage());
+                examDTOs.add(null);
+            }
         }
+        return importExamRows(examDTOs, result, userId);
+    }
 
-        // Update fields
-        exam.setExamType(examDTO.getExamType());
-        exam.setExamDate(examDTO.getExamDate());
-        exam.setExamTime(examDTO.getExamTime());
-        exam.setLocation(examDTO.getLocation());
-        exam.setDuration(examDTO.getDuration());
-        exam.setStatus(ExamStatus.valueOf(examDTO.getStatus().toUpperCase()));
+    private BulkImportResultDTO<ExamDTO> importExamRows(List<ExamDTO> examDTOs,
+            BulkImportResultDTO<ExamDTO> result, Long userId) {
+        Set<Long> courseIds = examDTOs.stream()
+                .filter(Objects::nonNull)
+                .map(ExamDTO::getCourseId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Course> courses = courseRepository.findAllById(courseIds).stream()
+                .collect(Collectors.toMap(Course::getId, Function.identity()));
+
+        List<Exam> exams = new ArrayList<>(examDTOs.size());
+        for (int i = 0; i < examDTOs.size(); i++) {
+            ExamDTO examDTO = examDTOs.get(i);
+            if (examDTO == null) {
+                continue;
+            }
+            int row = i + 1;
+            int errorsBefore = result.getErrors().size();
+
+            for (ConstraintViolation<ExamDTO> violation : validator.validate(examDTO)) {
+                result.addError(row, violation.getMessage());
+            }
+            Course course = examDTO.getCourseId() != null ? courses.get(examDTO.getCourseId()) : null;
+            if (examDTO.getCourseId() != null && course == null) {
+                result.addError(row, "Course not found with id: " + examDTO.getCourseId());
+            } else if (course != null && !course.getUserId().equals(userId)) {
+                result.addError(row, "Unauthorized: Course does not belong to user");
+            }
+            if (examDTO.getStatus() != null && !examDTO.getStatus().isBlank()) {
+                try {
+                    ExamStatus.fromLabel(examDTO.getStatus());
+                } catch (IllegalArgumentException e) {
+                    result.addError(row, "Invalid status: " + examDTO.getStatus());
+                }
+            }
+
+            if (result.getErrors().size() == errorsBefore) {
+                exams.add(toNewExam(examDTO, course));
+            }
+        }
+        if (!result.hasErrors()) {
+            reportConflicts(exams, result, userId);
+        }
+        if (result.hasErrors()) {
+            result.getErrors().sort(Comparator.comparingInt(BulkRowErrorDTO::getRow));
+            return result;
+        }
+
+        // Flush and clear per chunk so the persistence context stays small
+        for (int from = 0; from < exams.size(); from += IMPORT_CHUNK_SIZE) {
+            examRepository.saveAll(exams.subList(from, Math.min(from + IMPORT_CHUNK_SIZE, exams.size())));
+            entityManager.flush();
+            entityManager.clear();
+        }
+
+        publishChange(userId, ScheduleChangedEvent.Action.CREATED, null);
+        result.setImported(exams.size());
+        result.setCreated(convertToDTOs(exams));
+        return result;
+    }
+
+    // Report every pair of overlapping exams for a user, optionally within one term
+
+    @Transactional(readOnly = true)
+    public List<ExamConflictDTO> findConflicts(Long userId, String term) {
+        List<Exam> exams = term != null
+                ? examRepository.findByCourseUserIdAndCourseTerm(userId, term)
+                : examRepository.findByCourseUserId(userId);
+
+        Map<Long, Exam> examsById = new HashMap<>();
+        List<ExamInterval> intervals = new ArrayList<>(exams.size());
+        for (Exam exam : exams) {
+            examsById.put(exam.getId(), exam);
+            intervals.add(ExamInterval.of(exam.getId(), exam.getExamDate(), exam.getExamTime(), exam.getDuration()));
+        }
+
+        List<ExamConflictDTO> conflicts = new ArrayList<>();
+        for (ExamInterval[] pair : IntervalSweep.overlappingPairs(intervals)) {
+            conflicts.add(new ExamConflictDTO(
+                    convertToDTO(examsById.get(pair[0].getExamId())),
+                    convertToDTO(examsById.get(pair[1].getExamId()))));
+        }
+        return conflicts;
+    }
+
+    // Reject free-slot requests with a bad range, window or group size. Called
+    // before the response starts streaming, so a rejection is a plain error
+    // rather than a broken download.
+
+    public void checkFreeSlotsRequest(List<Long> userIds, LocalDate startDate, LocalDate endDate, int minMinutes,
+            LocalTime dayStart, LocalTime dayEnd) {
+        if (endDate.isBefore(startDate)) {
+            throw new RuntimeException("End date must not be before start date");
+        }
+        if (startDate.plusDays(MAX_FREE_SLOT_DAYS).isBefore(endDate)) {
+            throw new RuntimeException("Free slots can span at most " + MAX_FREE_SLOT_DAYS + " days");
+        }
+        if (minMinutes <= 0) {
+            throw new RuntimeException("Minimum free minutes must be positive");
+        }
+        if (userIds.size() > MAX_FREE_SLOT_USERS) {
+            throw new RuntimeException("Free slots can be found for at most " + MAX_FREE_SLOT_USERS + " users");
+        }
+        if (dayStart != null && dayEnd != null && !dayStart.isBefore(dayEnd)) {
+            throw new RuntimeException("Day start must be before day end");
+        }
+    }
 
-        Exam updatedExam = examRepository.save(exam);
+    // Write the free windows of at least minMinutes between startDate and endDate
+    // as NDJSON, optionally only between dayStart and dayEnd. With several users
+    // a window must be free for all of them: each user's exams are sorted once,
+    // the sorted lists are k-way merged by start and a single sweep over the
+    // merged busy time writes every gap as soon as it is found.
+
+    @Transactional(readOnly = true)
+    public void writeFreeSlots(List<Long> userIds, LocalDate startDate, LocalDate endDate, int minMinutes,
+            LocalTime dayStart, LocalTime dayEnd, OutputStream out) throws IOException {
+        checkFreeSlotsRequest(userIds, startDate, endDate, minMinutes, dayStart, dayEnd);
+
+        List<List<ExamInterval>> busy = new ArrayList<>(userIds.size() + 1);
+        for (Long userId : userIds) {
+            // Exams from the day before can run past midnight into the range
+            List<Exam> exams = examRepository.findByCourseUserIdAndExamDateBetween(userId, startDate.minusDays(1), endDate);
+            List<ExamInterval> intervals = new ArrayList<>(exams.size());
+            for (Exam exam : exams) {
+                intervals.add(ExamInterval.of(exam.getId(), exam.getExamDate(), exam.getExamTime(), exam.getDuration()));
+            }
+            intervals.sort(Comparator.comparingLong(ExamInterval::getStart));
+            busy.add(intervals);
+        }
+        busy.add(outsideDayHours(startDate, endDate, dayStart, dayEnd));
+
+        JsonGenerator generator = objectMapper.createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+
+        IntervalSweep.freeGaps(IntervalSweep.mergeByStart(busy),
+                ExamInterval.toMinutes(startDate.atStartOfDay()),
+                ExamInterval.toMinutes(endDate.plusDays(1).atStartOfDay()),
+                minMinutes,
+                (start, end) -> {
+                    generator.writeObject(new FreeSlotDTO(
+                            ExamInterval.toDateTime(start), ExamInterval.toDateTime(end), end - start));
+                    generator.writeRaw('\n');
+                });
+        generator.flush();
+    }
+
+    // Update an existing exam. The ownership check and the optional version
+    // check ride along in the UPDATE, which returns the new row.
+
+    @Transactional
+    public ExamDTO updateExam(Long id, ExamDTO examDTO, Long userId) {
+        checkNoConflict(userId, id, examDTO);
+
+        ExamRepository.ExamRow updatedExam = examRepository.updateByIdForUser(id, userId, examDTO.getVersion(),
+                        examDTO.getExamType(), examDTO.getExamDate(), examDTO.getExamTime(), examDTO.getLocation(),
+                        examDTO.getDuration(), ExamStatus.fromLabel(examDTO.getStatus()).name())
+                .orElseThrow(() -> rejectedWrite(id, userId));
+        publishChange(userId, ScheduleChangedEvent.Action.UPDATED, id);
         return convertToDTO(updatedExam);
     }
 
-    // Update only the exam status (for marking as completed)
+    // Set the status of many exams with one UPDATE; IDs the user does not own are skipped
 
     @Transactional
-    public ExamDTO updateExamStatus(Long id, String status, Long userId) {
-        Exam exam = examRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Exam not found with id: " + id));
+    public BulkStatusResultDTO updateExamStatuses(Collection<Long> ids, String status, Long userId) {
+        ExamStatus examStatus = ExamStatus.fromLabel(status);
+        Set<Long> distinctIds = new HashSet<>(ids);
+        if (distinctIds.size() > MAX_BULK_STATUS_IDS) {
+            throw new RuntimeException("At most " + MAX_BULK_STATUS_IDS + " exams can be updated at once");
+        }
+        if (distinctIds.isEmpty()) {
+            return new BulkStatusResultDTO(0, 0);
+        }
 
-        // Security check
-        if (!exam.getCourse().getUserId().equals(userId)) {
-            throw new RuntimeException("Unauthorized access to exam");
+        int updated = examRepository.updateStatusForUser(distinctIds, userId, examStatus);
+        if (updated > 0) {
+            publishChange(userId, ScheduleChangedEvent.Action.STATUS_CHANGED, null);
         }
+        return new BulkStatusResultDTO(distinctIds.size(), updated);
+    }
+
+    // Update only the exam status (for marking as completed)
 
-        exam.setStatus(ExamStatus.valueOf(status.toUpperCase()));
-        Exam updatedExam = examRepository.save(exam);
+    @Transactional
+    public ExamDTO updateExamStatus(Long id, String status, Long version, Long userId) {
+        ExamRepository.ExamRow updatedExam = examRepository.updateStatusByIdForUser(id, userId, version,
+                        ExamStatus.fromLabel(status).name())
+                .orElseThrow(() -> rejectedWrite(id, userId));
+        publishChange(userId, ScheduleChangedEvent.Action.STATUS_CHANGED, id);
         return convertToDTO(updatedExam);
     }
 
     // Delete an exam
 
     @Transactional
-    public void deleteExam(Long id, Long userId) {
-        Exam exam = examRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Exam not found with id: " + id));
+    public void deleteExam(Long id, Long version, Long userId) {
+        if (examRepository.deleteByIdForUser(id, userId, version) == 0) {
+            throw rejectedWrite(id, userId);
+        }
+        publishChange(userId, ScheduleChangedEvent.Action.DELETED, id);
+    }
 
-        // Security check
-        if (!exam.getCourse().getUserId().equals(userId)) {
-            throw new RuntimeException("Unauthorized access to exam");
+    // Explain why an owner-scoped write affected no row: the exam is gone,
+    // belongs to someone else, or was changed since the client read it
+
+    private RuntimeException rejectedWrite(Long id, Long userId) {
+        Long ownerId = examRepository.findOwnerIdById(id).orElse(null);
+        if (ownerId == null) {
+            return new RuntimeException("Exam not found with id: " + id);
+        }
+        if (!ownerId.equals(userId)) {
+            return new RuntimeException("Unauthorized access to exam");
+        }
+        return new ObjectOptimisticLockingFailureException(Exam.class, id);
+    }
+
+    // Reject an exam that overlaps another exam of the same user. Only exams
+    // from the day before to the day after can overlap, so the candidates come
+    // from one indexed date-range query and are scanned linearly; there are only
+    // a handful, so sorting them would cost more than it saves.
+
+    private void checkNoConflict(Long userId, Long examId, ExamDTO examDTO) {
+        scheduleLock.lock(userId);
+        ExamInterval probe = ExamInterval.of(examId, examDTO.getExamDate(), examDTO.getExamTime(), examDTO.getDuration());
+        List<Exam> candidates = examRepository.findByCourseUserIdAndExamDateBetween(
+                userId, examDTO.getExamDate().minusDays(1), examDTO.getExamDate().plusDays(1));
+        for (Exam other : candidates) {
+            if (other.getId().equals(examId)) {
+                continue;
+            }
+            if (probe.overlaps(ExamInterval.of(other.getId(), other.getExamDate(), other.getExamTime(), other.getDuration()))) {
+                throw new RuntimeException("Exam conflicts with " + other.getCourse().getCourseCode() + " "
+                        + other.getExamType() + " on " + other.getExamDate() + " at " + other.getExamTime());
+            }
+        }
+    }
+
+    // Imported rows get negative interval ids (-row) to tell them apart from
+    // saved exams; one sweep finds overlaps among the rows and with existing exams.
+
+    private void reportConflicts(List<Exam> exams, BulkImportResultDTO<ExamDTO> result, Long userId) {
+        if (exams.isEmpty()) {
+            return;
         }
+        scheduleLock.lock(userId);
+        List<ExamInterval> intervals = new ArrayList<>();
+        LocalDate first = exams.get(0).getExamDate();
+        LocalDate last = first;
+        for (int i = 0; i < exams.size(); i++) {
+            Exam exam = exams.get(i);
+            intervals.add(ExamInterval.of(-(long) (i + 1), exam.getExamDate(), exam.getExamTime(), exam.getDuration()));
+            first = exam.getExamDate().isBefore(first) ? exam.getExamDate() : first;
+            last = exam.getExamDate().isAfter(last) ? exam.getExamDate() : last;
+        }
+        for (Exam existing : examRepository.findByCourseUserIdAndExamDateBetween(userId, first.minusDays(1), last.plusDays(1))) {
+            intervals.add(ExamInterval.of(existing.getId(), existing.getExamDate(), existing.getExamTime(), existing.getDuration()));
+        }
+
+        for (ExamInterval[] pair : IntervalSweep.overlappingPairs(intervals)) {
+            long a = pair[0].getExamId();
+            long b = pair[1].getExamId();
+            if (a < 0 && b < 0) {
+                result.addError((int) -Math.min(a, b), "Conflicts with row " + -Math.max(a, b));
+            } else if (a < 0 || b < 0) {
+                result.addError((int) -Math.min(a, b), "Conflicts with exam " + Math.max(a, b));
+            }
+        }
+    }
+
+    // Busy time before dayStart and after dayEnd on every day, in start order
+
+    private static List<ExamInterval> outsideDayHours(LocalDate startDate, LocalDate endDate,
+            LocalTime dayStart, LocalTime dayEnd) {
+        List<ExamInterval> hours = new ArrayList<>();
+        if (dayStart == null && dayEnd == null) {
+            return hours;
+        }
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            if (dayStart != null && dayStart.isAfter(LocalTime.MIDNIGHT)) {
+                hours.add(new ExamInterval(null, ExamInterval.toMinutes(day.atStartOfDay()),
+                        ExamInterval.toMinutes(day.atTime(dayStart))));
+            }
+            if (dayEnd != null) {
+                hours.add(new ExamInterval(null, ExamInterval.toMinutes(day.atTime(dayEnd)),
+                        ExamInterval.toMinutes(day.plusDays(1).atStartOfDay())));
+            }
+        }
+        return hours;
+    }
+
+    // "courseCode,-examDate" -> courseCode ascending, then examDate descending
+
+    private static Sort parseSort(String sort) {
+        List<Sort.Order> orders = new ArrayList<>();
+        for (String key : sort.split(",")) {
+            String property = key.trim();
+            boolean descending = property.startsWith("-");
+            if (descending) {
+                property = property.substring(1);
+            }
+            if (!ExamFilter.SORT_KEYS.contains(property)) {
+                throw new RuntimeException("Unknown sort key: " + property);
+            }
+            orders.add(descending ? Sort.Order.desc(property) : Sort.Order.asc(property));
+        }
+        return Sort.by(orders);
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
 
-        examRepository.delete(exam);
+    private void publishChange(Long userId, ScheduleChangedEvent.Action action, Long examId) {
+        eventPublisher.publishEvent(new ScheduleChangedEvent(userId, ScheduleChangedEvent.EntityType.EXAM, action, examId));
+    }
+
+    private Exam toNewExam(ExamDTO examDTO, Course course) {
+        Exam exam = new Exam();
+        exam.setCourse(course);
+        exam.setExamType(examDTO.getExamType());
+        exam.setExamDate(examDTO.getExamDate());
+        exam.setExamTime(examDTO.getExamTime());
+        exam.setLocation(examDTO.getLocation());
+        exam.setDuration(examDTO.getDuration());
+        exam.setStatus(ExamStatus.fromLabel(examDTO.getStatus()));
+        return exam;
+    }
+
+    // Pre-sized, stream-free mapping for the list endpoints
+
+    static List<ExamDTO> convertToDTOs(List<Exam> exams) {
+        List<ExamDTO> dtos = new ArrayList<>(exams.size());
+        for (Exam exam : exams) {
+            dtos.add(convertToDTO(exam));
+        }
+        return dtos;
     }
 
     // Convert exam entity to examDTO
 
-    private ExamDTO convertToDTO(Exam exam) {
+    static ExamDTO convertToDTO(Exam exam) {
         ExamDTO dto = new ExamDTO();
         dto.setId(exam.getId());
         dto.setCourseId(exam.getCourse().getId());
@@ -172,7 +652,16 @@ public class ExamService {
         dto.setExamTime(exam.getExamTime());
         dto.setLocation(exam.getLocation());
         dto.setDuration(exam.getDuration());
-        dto.setStatus(exam.getStatus().name().toLowerCase());
+        dto.setStatus(exam.getStatus().getLabel());
+        dto.setVersion(exam.getVersion());
+        return dto;
+    }
+
+    static ExamDTO convertToDTO(ExamRepository.ExamRow row) {
+        ExamDTO dto = new ExamDTO(row.getId(), row.getCourseId(), row.getExamType(), row.getExamDate(),
+                row.getExamTime(), row.getLocation(), row.getDuration(), row.getStatus().getLabel(),
+                row.getCourseCode(), row.getCourseName());
+        dto.setVersion(row.getVersion());
         return dto;
     }
 }
@@ -0,0 +1,77 @@
+package com.conestoga.scheduler.service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+// Minimal RFC 5545 writer: appends content lines straight into a byte buffer
+// as UTF-8, ending each with CRLF and folding anything longer than 75 octets
+// onto continuation lines without splitting a multi-byte character.
+
+final class IcsWriter {
+
+    private static final int MAX_LINE_OCTETS = 75;
+    private static final byte[] CRLF = { '\r', '\n' };
+    private static final byte[] FOLD = { '\r', '\n', ' ' };
+    private static final DateTimeFormatter UTC_DATE_TIME =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    private final ByteArrayOutputStream buffer;
+
+    IcsWriter(int expectedBytes) {
+        this.buffer = new ByteArrayOutputStream(expectedBytes);
+    }
+
+    // Writes NAME:value with value used verbatim (dates, enumerated values)
+
+    IcsWriter line(String name, String value) {
+        byte[] bytes = (name + ":" + value).getBytes(StandardCharsets.UTF_8);
+        int start = 0;
+        int limit = MAX_LINE_OCTETS;
+        while (bytes.length - start > limit) {
+            int end = start + limit;
+            // Back up to the first byte of a UTF-8 sequence
+            while ((bytes[end] & 0xC0) == 0x80) {
+                end--;
+            }
+            buffer.write(bytes, start, end - start);
+            buffer.writeBytes(FOLD);
+            start = end;
+            // The leading space of a continuation line counts towards its length
+            limit = MAX_LINE_OCTETS - 1;
+        }
+        buffer.write(bytes, start, bytes.length - start);
+        buffer.writeBytes(CRLF);
+        return this;
+    }
+
+    // Writes NAME:value with TEXT escaping; null values are skipped
+
+    IcsWriter text(String name, String value) {
+        if (value == null || value.isEmpty()) {
+            return this;
+        }
+        StringBuilder escaped = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\', ';', ',' -> escaped.append('\\').append(c);
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> {
+                }
+                default -> escaped.append(c);
+            }
+        }
+        return line(name, escaped.toString());
+    }
+
+    IcsWriter utc(String name, Instant instant) {
+        return line(name, UTC_DATE_TIME.format(instant));
+    }
+
+    byte[] toByteArray() {
+        return buffer.toByteArray();
+    }
+}
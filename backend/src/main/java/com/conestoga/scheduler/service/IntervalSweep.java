@@ -0,0 +1,107 @@
+package com.conestoga.scheduler.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+// Sweep-line over exam intervals sorted by start. The active set is a min-heap
+// on end time, so finding every overlapping pair costs O(n log n + k) for k
+// pairs instead of the O(n^2) pairwise scan.
+
+final class IntervalSweep {
+
+    private IntervalSweep() {
+    }
+
+    // Receives each free gap as soon as the sweep finds it
+
+    interface GapSink {
+        void gap(long start, long end) throws IOException;
+    }
+
+    static List<ExamInterval[]> overlappingPairs(List<ExamInterval> intervals) {
+        List<ExamInterval> sorted = new ArrayList<>(intervals);
+        sorted.sort(Comparator.comparingLong(ExamInterval::getStart));
+
+        List<ExamInterval[]> pairs = new ArrayList<>();
+        PriorityQueue<ExamInterval> active = new PriorityQueue<>(Comparator.comparingLong(ExamInterval::getEnd));
+        for (ExamInterval interval : sorted) {
+            while (!active.isEmpty() && active.peek().getEnd() <= interval.getStart()) {
+                active.poll();
+            }
+            for (ExamInterval open : active) {
+                pairs.add(new ExamInterval[] { open, interval });
+            }
+            active.add(interval);
+        }
+        return pairs;
+    }
+
+    // Gaps of at least minLength in [from, to) between busy intervals sorted by
+    // start. The cursor only moves forward, so overlapping and back-to-back
+    // intervals merge as they are read and each interval is visited once.
+
+    static void freeGaps(Iterator<ExamInterval> busyByStart, long from, long to, long minLength, GapSink sink)
+            throws IOException {
+        long cursor = from;
+        while (busyByStart.hasNext() && cursor < to) {
+            ExamInterval busy = busyByStart.next();
+            long gapEnd = Math.min(busy.getStart(), to);
+            if (gapEnd - cursor >= minLength) {
+                sink.gap(cursor, gapEnd);
+            }
+            cursor = Math.max(cursor, busy.getEnd());
+        }
+        if (to - cursor >= minLength) {
+            sink.gap(cursor, to);
+        }
+    }
+
+    // k-way merge of lists that are each sorted by start. Only the head of
+    // every list sits in the heap, so n intervals cost O(n log k).
+
+    static Iterator<ExamInterval> mergeByStart(List<List<ExamInterval>> sortedLists) {
+        PriorityQueue<Head> heads = new PriorityQueue<>(Comparator.comparingLong(head -> head.current.getStart()));
+        for (List<ExamInterval> list : sortedLists) {
+            Iterator<ExamInterval> rest = list.iterator();
+            if (rest.hasNext()) {
+                heads.add(new Head(rest.next(), rest));
+            }
+        }
+
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public ExamInterval next() {
+                Head head = heads.poll();
+                if (head == null) {
+                    throw new NoSuchElementException();
+                }
+                ExamInterval next = head.current;
+                if (head.rest.hasNext()) {
+                    head.current = head.rest.next();
+                    heads.add(head);
+                }
+                return next;
+            }
+        };
+    }
+
+    private static final class Head {
+        ExamInterval current;
+        final Iterator<ExamInterval> rest;
+
+        Head(ExamInterval current, Iterator<ExamInterval> rest) {
+            this.current = current;
+            this.rest = rest;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.conestoga.scheduler.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Duration;
+import java.util.function.Predicate;
+
+// Background jobs kept in memory for status polling. Running jobs never
+// expire; a finished job is dropped once the retention has passed since
+// finished() was called for it.
+
+final class JobRegistry<J> {
+
+    private final Cache<String, J> jobs;
+
+    JobRegistry(Duration retention, Predicate<J> isFinished) {
+        long retentionNanos = retention.toNanos();
+        this.jobs = Caffeine.newBuilder()
+                .expireAfter(new Expiry<String, J>() {
+                    @Override
+                    public long expireAfterCreate(String id, J job, long now) {
+                        return isFinished.test(job) ? retentionNanos : Long.MAX_VALUE;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String id, J job, long now, long remaining) {
+                        return isFinished.test(job) ? retentionNanos : Long.MAX_VALUE;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String id, J job, long now, long remaining) {
+                        return remaining;
+                    }
+                })
+                .build();
+    }
+
+    void add(String id, J job) {
+        jobs.put(id, job);
+    }
+
+    J get(String id) {
+        return jobs.getIfPresent(id);
+    }
+
+    // Starts the retention period of a job that has completed or failed
+
+    void finished(String id, J job) {
+        jobs.asMap().replace(id, job);
+    }
+}
@@ -0,0 +1,55 @@
+package com.conestoga.scheduler.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Opaque keyset cursor: the sort key of the last row of a page, each part
+// Base64url-encoded so values containing the separator survive the round trip.
+
+final class PageCursor {
+
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+
+    private static final String SEPARATOR = ".";
+
+    private PageCursor() {
+    }
+
+    static String encode(String... parts) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                token.append(SEPARATOR);
+            }
+            token.append(encoder.encodeToString(parts[i].getBytes(StandardCharsets.UTF_8)));
+        }
+        return token.toString();
+    }
+
+    static String[] decode(String cursor, int expectedParts) {
+        String[] parts = cursor.split("\\" + SEPARATOR, -1);
+        if (parts.length != expectedParts) {
+            throw new RuntimeException("Invalid page cursor");
+        }
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            for (int i = 0; i < parts.length; i++) {
+                parts[i] = new String(decoder.decode(parts[i]), StandardCharsets.UTF_8);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid page cursor");
+        }
+        return parts;
+    }
+
+    // Clamp the requested size to [1, MAX_PAGE_SIZE]
+
+    static int pageSize(Integer requested) {
+        if (requested == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.max(1, Math.min(requested, MAX_PAGE_SIZE));
+    }
+}
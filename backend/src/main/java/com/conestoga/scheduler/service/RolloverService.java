@@ -0,0 +1,218 @@
+package com.conestoga.scheduler.service;
+
+import com.conestoga.scheduler.dto.RolloverJobDTO;
+import com.conestoga.scheduler.dto.RolloverRequestDTO;
+import com.conestoga.scheduler.dto.RolloverResultDTO;
+import com.conestoga.scheduler.event.ScheduleChangedEvent;
+import com.conestoga.scheduler.repository.CourseRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+// Term rollover: copies a user's courses in one term into the next, with
+// their exams shifted by a number of days, as a single set-based statement
+// (CourseRepository.rolloverTerm) instead of one create request per row.
+// Each user's schedule is locked with ScheduleLock and checked for copied
+// exams overlapping existing ones in the same transaction, as exam writes are:
+// a single rollover is rejected, an admin job skips and counts those users.
+// Admins can roll over every user in the background, one transaction per
+// chunk of users, and poll the job for progress until scheduler.jobs.retention
+// after it finished.
+
+@Service
+@Timed("scheduler.service")
+public class RolloverService {
+
+    private static final int CHUNK_USERS = 500;
+
+    private final CourseRepository courseRepository;
+    private final ScheduleLock scheduleLock;
+    private final AdminAccess adminAccess;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BackgroundJobs backgroundJobs;
+
+    private final JobRegistry<Job> jobs;
+
+    @Autowired
+    public RolloverService(CourseRepository courseRepository, ScheduleLock scheduleLock, AdminAccess adminAccess,
+            TransactionTemplate transactionTemplate, ApplicationEventPublisher eventPublisher,
+            BackgroundJobs backgroundJobs, @Value("${scheduler.jobs.retention:PT1H}") Duration jobRetention) {
+        this.courseRepository = courseRepository;
+        this.scheduleLock = scheduleLock;
+        this.adminAccess = adminAccess;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.backgroundJobs = backgroundJobs;
+        this.jobs = new JobRegistry<>(jobRetention, Job::isFinished);
+    }
+
+    // Roll over one user's courses and exams
+
+    @Transactional
+    public RolloverResultDTO rollover(RolloverRequestDTO request, Long userId) {
+        checkTerms(request);
+        long[] created = rolloverUsers(List.of(userId), request);
+        if (created[2] > 0) {
+            throw new RuntimeException("Rolled-over exams would overlap exams already scheduled; nothing was copied");
+        }
+        return new RolloverResultDTO((int) created[0], (int) created[1]);
+    }
+
+    // Start rolling over every user with courses in the source term (admins only)
+
+    public RolloverJobDTO startJob(RolloverRequestDTO request, Long userId) {
+        adminAccess.requireAdmin(userId);
+        checkTerms(request);
+
+        Job job = new Job(UUID.randomUUID().toString(), request.getFromTerm(), request.getToTerm());
+        jobs.add(job.id, job);
+        backgroundJobs.submit(() -> run(job, request));
+        return job.snapshot();
+    }
+
+    // Get progress of a rollover job
+
+    public RolloverJobDTO getJob(String jobId, Long userId) {
+        adminAccess.requireAdmin(userId);
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            throw new RuntimeException("Rollover job not found with id: " + jobId);
+        }
+        return job.snapshot();
+    }
+
+    private void run(Job job, RolloverRequestDTO request) {
+        try {
+            job.started(courseRepository.countUsersByTerm(request.getFromTerm()));
+            long after = Long.MIN_VALUE;
+            while (true) {
+                List<Long> userIds = courseRepository.findUserIdsByTermAfter(request.getFromTerm(), after,
+                        PageRequest.ofSize(CHUNK_USERS));
+                if (userIds.isEmpty()) {
+                    break;
+                }
+                long[] created = transactionTemplate.execute(status -> rolloverUsers(userIds, request));
+                job.chunkDone(userIds.size(), created[0], created[1], created[2]);
+                after = userIds.get(userIds.size() - 1);
+            }
+            job.completed();
+        } catch (RuntimeException e) {
+            job.failed(e.getMessage());
+        } finally {
+            jobs.finished(job.id, job);
+        }
+    }
+
+    // Returns {courses, exams} created and the number of users skipped because
+    // their copied exams would overlap existing ones; must run in a transaction
+
+    private long[] rolloverUsers(List<Long> userIds, RolloverRequestDTO request) {
+        scheduleLock.lockAll(userIds);
+        Set<Long> conflicting = new HashSet<>(courseRepository.findRolloverConflictUserIds(userIds,
+                request.getFromTerm(), request.getToTerm(), request.getOffsetDays()));
+        List<Long> clear = userIds.stream().filter(userId -> !conflicting.contains(userId)).toList();
+        long courses = 0;
+        long exams = 0;
+        if (clear.isEmpty()) {
+            return new long[] { courses, exams, conflicting.size() };
+        }
+        for (Object[] row : courseRepository.rolloverTerm(clear, request.getFromTerm(), request.getToTerm(),
+                request.getOffsetDays())) {
+            Long userId = ((Number) row[0]).longValue();
+            courses += ((Number) row[1]).longValue();
+            exams += ((Number) row[2]).longValue();
+            eventPublisher.publishEvent(new ScheduleChangedEvent(userId,
+                    ScheduleChangedEvent.EntityType.COURSE, ScheduleChangedEvent.Action.CREATED, null));
+        }
+        return new long[] { courses, exams, conflicting.size() };
+    }
+
+    private void checkTerms(RolloverRequestDTO request) {
+        if (request.getFromTerm().equals(request.getToTerm())) {
+            throw new RuntimeException("Source and target term must differ");
+        }
+    }
+
+    // Mutable job state shared between the worker thread and status requests
+
+    private static final class Job {
+
+        private final String id;
+        private final String fromTerm;
+        private final String toTerm;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+
+        private String status = "RUNNING";
+        private long users;
+        private long usersDone;
+        private long coursesCreated;
+        private long examsCreated;
+        private long usersSkipped;
+        private String message;
+        private LocalDateTime finishedAt;
+
+        Job(String id, String fromTerm, String toTerm) {
+            this.id = id;
+            this.fromTerm = fromTerm;
+            this.toTerm = toTerm;
+        }
+
+        synchronized void started(long users) {
+            this.users = users;
+        }
+
+        synchronized boolean isFinished() {
+            return finishedAt != null;
+        }
+
+        synchronized void chunkDone(int users, long courses, long exams, long skipped) {
+            usersDone += users;
+            coursesCreated += courses;
+            examsCreated += exams;
+            usersSkipped += skipped;
+        }
+
+        synchronized void completed() {
+            this.status = "COMPLETED";
+            this.finishedAt = LocalDateTime.now();
+        }
+
+        synchronized void failed(String message) {
+            this.status = "FAILED";
+            this.message = message;
+            this.finishedAt = LocalDateTime.now();
+        }
+
+        synchronized RolloverJobDTO snapshot() {
+            RolloverJobDTO dto = new RolloverJobDTO();
+            dto.setJobId(id);
+            dto.setFromTerm(fromTerm);
+            dto.setToTerm(toTerm);
+            dto.setStatus(status);
+            dto.setProgress("COMPLETED".equals(status) ? 1.0
+                    : users == 0 ? 0.0 : Math.min(1.0, (double) usersDone / users));
+            dto.setUsers(users);
+            dto.setUsersDone(usersDone);
+            dto.setCoursesCreated(coursesCreated);
+            dto.setExamsCreated(examsCreated);
+            dto.setUsersSkipped(usersSkipped);
+            dto.setMessage(message);
+            dto.setStartedAt(startedAt);
+            dto.setFinishedAt(finishedAt);
+            return dto;
+        }
+    }
+}
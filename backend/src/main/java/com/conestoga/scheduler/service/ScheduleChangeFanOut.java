@@ -0,0 +1,135 @@
+package com.conestoga.scheduler.service;
+
+import com.conestoga.scheduler.event.ScheduleChangedEvent;
+import com.conestoga.scheduler.repository.ScheduleVersionRepository;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+// Carries schedule changes from the node that commits them to the
+// ScheduleChangeStream of every node, with PostgreSQL LISTEN/NOTIFY.
+//
+// Each change is sent with pg_notify in the writing transaction, next to the
+// schedule version bump, so PostgreSQL delivers it once the change commits,
+// never after a rollback, and in commit order. Every node, the writing one
+// included, listens on its own connection to the primary, opened outside the
+// pool so it does not take a pooled connection for good. Notifications sent
+// while that connection is down are lost, so after reconnecting every open
+// stream is told to resync.
+
+@Component
+public class ScheduleChangeFanOut {
+
+    private static final Logger log = LoggerFactory.getLogger(ScheduleChangeFanOut.class);
+
+    static final String CHANNEL = "schedule_changes";
+    private static final int POLL_MILLIS = 1000;
+
+    private final ScheduleVersionRepository scheduleVersionRepository;
+    private final ScheduleChangeStream scheduleChangeStream;
+    private final DataSourceProperties dataSourceProperties;
+    private final Duration reconnectDelay;
+    private final Thread listener;
+    private volatile boolean running = true;
+
+    @Autowired
+    public ScheduleChangeFanOut(ScheduleVersionRepository scheduleVersionRepository,
+            ScheduleChangeStream scheduleChangeStream, DataSourceProperties dataSourceProperties,
+            @Value("${scheduler.stream.reconnect-delay:PT5S}") Duration reconnectDelay) {
+        this.scheduleVersionRepository = scheduleVersionRepository;
+        this.scheduleChangeStream = scheduleChangeStream;
+        this.dataSourceProperties = dataSourceProperties;
+        this.reconnectDelay = reconnectDelay;
+        this.listener = new Thread(this::listen, "schedule-change-listener");
+        this.listener.setDaemon(true);
+    }
+
+    // Runs synchronously in the writing transaction, like the version bump
+
+    @EventListener
+    public void onScheduleChanged(ScheduleChangedEvent event) {
+        scheduleVersionRepository.sendNotification(CHANNEL, payload(event));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        listener.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+    }
+
+    private void listen() {
+        boolean reconnected = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (reconnected) {
+                    scheduleChangeStream.resyncAll();
+                }
+                PGConnection notifications = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] received = notifications.getNotifications(POLL_MILLIS);
+                    if (received == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : received) {
+                        ScheduleChangedEvent event = parse(notification.getParameter());
+                        if (event != null) {
+                            scheduleChangeStream.publish(event);
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Schedule change listener lost its connection, retrying in {}", reconnectDelay, e);
+                reconnected = true;
+                try {
+                    Thread.sleep(reconnectDelay.toMillis());
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // userId:entityType:action:entityId, with entityId empty for bulk changes
+
+    static String payload(ScheduleChangedEvent event) {
+        return event.getUserId() + ":" + event.getEntityType() + ":" + event.getAction() + ":"
+                + (event.getEntityId() == null ? "" : event.getEntityId());
+    }
+
+    static ScheduleChangedEvent parse(String payload) {
+        String[] parts = payload.split(":", -1);
+        try {
+            return new ScheduleChangedEvent(Long.valueOf(parts[0]),
+                    ScheduleChangedEvent.EntityType.valueOf(parts[1]), ScheduleChangedEvent.Action.valueOf(parts[2]),
+                    parts[3].isEmpty() ? null : Long.valueOf(parts[3]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            log.warn("Ignoring malformed schedule change notification: {}", payload);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.conestoga.scheduler.service;
+
+import com.conestoga.scheduler.dto.ScheduleChangeDTO;
+import com.conestoga.scheduler.event.ScheduleChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Pushes committed schedule changes to the user's open SSE connections.
+// Changes arrive through ScheduleChangeFanOut, so a connection sees changes
+// committed on any node, including the completion sweeper's.
+//
+// Idle connections are async requests, so they hold no thread. Each user has
+// a channel with a sequence number and a buffer of the last few events; a
+// client reconnecting with Last-Event-ID gets the events it missed, or a
+// "resync" event when the buffer no longer covers the gap and it has to
+// re-fetch. Event ids are "<node>-<sequence>" with a node id drawn at start,
+// since sequences are per node and restart with it: a client that reconnects
+// to another node, or to a restarted one, always gets a resync.
+//
+// Every connection has a bounded queue drained on a pool of its own
+// (scheduler.stream.sender-threads), so a slow client never blocks the
+// committing thread, and sends stuck on slow sockets cannot starve the
+// application task executor that serves streaming responses. A client whose queue
+// overflows is disconnected and resumes from the buffer when it reconnects.
+// One scheduled pass sends heartbeats to connections that were idle for a
+// whole interval and drops channels nobody listens to.
+
+@Service
+public class ScheduleChangeStream {
+
+    private static final String CHANGE_EVENT = "schedule-change";
+    private static final String RESYNC_EVENT = "resync";
+
+    private final String node = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ThreadPoolTaskExecutor senders;
+    private final Duration timeout;
+    private final Duration heartbeat;
+    private final int resumeBuffer;
+    private final int queueCapacity;
+    private final Counter droppedSubscribers;
+
+    @Autowired
+    public ScheduleChangeStream(Environment environment, MeterRegistry meterRegistry,
+            @Value("${scheduler.stream.timeout:30m}") Duration timeout,
+            @Value("${scheduler.stream.heartbeat:PT15S}") Duration heartbeat,
+            @Value("${scheduler.stream.resume-buffer:100}") int resumeBuffer,
+            @Value("${scheduler.stream.queue-capacity:64}") int queueCapacity,
+            @Value("${scheduler.stream.sender-threads:32}") int senderThreads) {
+        this.senders = TaskPools.fixed("schedule-stream-", senderThreads, environment);
+        this.timeout = timeout;
+        this.heartbeat = heartbeat;
+        this.resumeBuffer = resumeBuffer;
+        this.queueCapacity = queueCapacity;
+        this.droppedSubscribers = meterRegistry.counter("scheduler.stream.dropped");
+        meterRegistry.gauge("scheduler.stream.subscribers", subscriberCount);
+    }
+
+    // Open a stream for a user, replaying what it missed after lastEventId
+
+    public SseEmitter subscribe(Long userId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        emitter.onCompletion(subscriber::remove);
+        emitter.onTimeout(subscriber::remove);
+        emitter.onError(error -> subscriber.remove());
+
+        Long resumeFrom = parseEventId(lastEventId);
+        while (!attach(subscriber, resumeFrom)) {
+            // Raced with the heartbeat dropping an unused channel; take the new one
+        }
+        // Flushes the response headers right away so the client sees the stream open
+        subscriber.offer(Message.HEARTBEAT);
+        return emitter;
+    }
+
+    private boolean attach(Subscriber subscriber, Long resumeFrom) {
+        Channel channel = channels.computeIfAbsent(subscriber.userId, id -> new Channel());
+        synchronized (channel) {
+            if (channel.closed) {
+                return false;
+            }
+            channel.subscribers.add(subscriber);
+            subscriberCount.incrementAndGet();
+            if (resumeFrom != null) {
+                if (channel.covers(resumeFrom)) {
+                    for (Message message : channel.recent) {
+                        if (message.id() > resumeFrom) {
+                            subscriber.offer(message);
+                        }
+                    }
+                } else {
+                    subscriber.offer(new Message(channel.sequence, RESYNC_EVENT, null));
+                }
+            }
+            return true;
+        }
+    }
+
+    // Send a committed change to the user's connections on this node
+
+    public void publish(ScheduleChangedEvent event) {
+        Channel channel = channels.get(event.getUserId());
+        if (channel == null) {
+            return;
+        }
+        ScheduleChangeDTO change = new ScheduleChangeDTO(event.getEntityType().name(),
+                event.getAction().name(), event.getEntityId());
+        synchronized (channel) {
+            Message message = new Message(++channel.sequence, CHANGE_EVENT, change);
+            channel.recent.addLast(message);
+            if (channel.recent.size() > resumeBuffer) {
+                channel.recent.removeFirst();
+            }
+            channel.lastEventAt = System.nanoTime();
+            for (Subscriber subscriber : channel.subscribers) {
+                subscriber.offer(message);
+            }
+        }
+    }
+
+    // Tell every connection to re-fetch, after changes may have been missed
+
+    public void resyncAll() {
+        for (Channel channel : channels.values()) {
+            synchronized (channel) {
+                Message message = new Message(++channel.sequence, RESYNC_EVENT, null);
+                // A client resuming from before this point replays the resync
+                channel.recent.clear();
+                channel.recent.addLast(message);
+                for (Subscriber subscriber : channel.subscribers) {
+                    subscriber.offer(message);
+                }
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${scheduler.stream.heartbeat:PT15S}")
+    public void heartbeat() {
+        long now = System.nanoTime();
+        long idleSince = now - heartbeat.toNanos();
+        Iterator<Map.Entry<Long, Channel>> entries = channels.entrySet().iterator();
+        while (entries.hasNext()) {
+            Channel channel = entries.next().getValue();
+            synchronized (channel) {
+                if (channel.subscribers.isEmpty()) {
+                    // Keep the resume buffer for clients that are about to reconnect
+                    if (now - channel.lastEventAt > timeout.toNanos()) {
+                        channel.closed = true;
+                        entries.remove();
+                    }
+                    continue;
+                }
+                for (Subscriber subscriber : channel.subscribers) {
+                    if (subscriber.lastSentAt < idleSince) {
+                        subscriber.offer(Message.HEARTBEAT);
+                    }
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdown();
+    }
+
+    // Null without Last-Event-ID, -1 (always a resync) for an id this node never issued
+
+    private Long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        String prefix = node + "-";
+        String id = lastEventId.trim();
+        if (!id.startsWith(prefix)) {
+            return -1L;
+        }
+        try {
+            return Long.valueOf(id.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    private static class Channel {
+        final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        final ArrayDeque<Message> recent = new ArrayDeque<>();
+        long sequence;
+        long lastEventAt = System.nanoTime();
+        boolean closed;
+
+        // True when every event after lastEventId is still buffered
+        boolean covers(long lastEventId) {
+            if (lastEventId < 0 || lastEventId > sequence) {
+                return false;
+            }
+            return recent.isEmpty() ? lastEventId == sequence : recent.peekFirst().id() <= lastEventId + 1;
+        }
+    }
+
+    private record Message(long id, String name, Object data) {
+        static final Message HEARTBEAT = new Message(-1, null, null);
+    }
+
+    private class Subscriber {
+        final Long userId;
+        final SseEmitter emitter;
+        final BlockingQueue<Message> queue = new ArrayBlockingQueue<>(queueCapacity);
+        final AtomicBoolean draining = new AtomicBoolean();
+        final AtomicBoolean removed = new AtomicBoolean();
+        volatile boolean overflowed;
+        volatile long lastSentAt = System.nanoTime();
+
+        Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void offer(Message message) {
+            if (!queue.offer(message)) {
+                overflowed = true;
+                queue.clear();
+            }
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                Message message;
+                try {
+                    while (!overflowed && (message = queue.poll()) != null) {
+                        send(message);
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // The client went away; the container completes the emitter
+                    remove();
+                    return;
+                }
+                if (overflowed) {
+                    // Stays marked as draining so nothing is sent after the events it lost
+                    droppedSubscribers.increment();
+                    remove();
+                    emitter.complete();
+                    return;
+                }
+                draining.set(false);
+            } while ((overflowed || !queue.isEmpty()) && draining.compareAndSet(false, true));
+        }
+
+        private void send(Message message) throws IOException {
+            if (message == Message.HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment(""));
+            } else {
+                SseEmitter.SseEventBuilder event = SseEmitter.event()
+                        .id(node + "-" + message.id())
+                        .name(message.name());
+                if (message.data() != null) {
+                    event.data(message.data(), MediaType.APPLICATION_JSON);
+                } else {
+                    event.data("{}", MediaType.APPLICATION_JSON);
+                }
+                emitter.send(event);
+            }
+            lastSentAt = System.nanoTime();
+        }
+
+        void remove() {
+            if (!removed.compareAndSet(false, true)) {
+                return;
+            }
+            subscriberCount.decrementAndGet();
+            Channel channel = channels.get(userId);
+            if (channel != null) {
+                channel.subscribers.remove(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.conestoga.scheduler.service;
+
+import com.conestoga.scheduler.repository.ExamRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+// Serializes conflict-checked writes to a user's exams until the transaction
+// ends, so two concurrent writes (exam edits, imports, rollovers) cannot both
+// pass the overlap check and commit overlapping exams. Users whose ids share
+// the low 31 bits merely wait for each other.
+
+@Component
+public class ScheduleLock {
+
+    private static final int NAMESPACE = 0x5C4E;
+
+    private final ExamRepository examRepository;
+
+    @Autowired
+    public ScheduleLock(ExamRepository examRepository) {
+        this.examRepository = examRepository;
+    }
+
+    // Lock one user's schedule; must run in a transaction
+
+    public void lock(Long userId) {
+        examRepository.advisoryTransactionLock(NAMESPACE, (int) (userId & Integer.MAX_VALUE));
+    }
+
+    // Lock several users' schedules in key order, so two transactions locking
+    // overlapping sets of users cannot deadlock
+
+    public void lockAll(Collection<Long> userIds) {
+        userIds.stream()
+                .mapToInt(userId -> (int) (userId & Integer.MAX_VALUE))
+                .distinct()
+                .sorted()
+                .forEach(key -> examRepository.advisoryTransactionLock(NAMESPACE, key));
+    }
+}
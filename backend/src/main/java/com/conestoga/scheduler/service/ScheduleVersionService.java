@@ -0,0 +1,101 @@
+package com.conestoga.scheduler.service;
+
+import com.conestoga.scheduler.cache.ScheduleCache;
+import com.conestoga.scheduler.entity.ScheduleVersion;
+import com.conestoga.scheduler.event.ScheduleChangedEvent;
+import com.conestoga.scheduler.repository.ScheduleVersionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+// Per-user schedule version used as ETag / Last-Modified for the read endpoints.
+// The bump listens synchronously, so it commits or rolls back with the change.
+
+@Service
+public class ScheduleVersionService {
+
+    private static final LocalDateTime NEVER_MODIFIED = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final int PARAMETER_DIGEST_BYTES = 8;
+
+    private final ScheduleVersionRepository scheduleVersionRepository;
+    private final ScheduleCache scheduleCache;
+
+    @Autowired
+    public ScheduleVersionService(ScheduleVersionRepository scheduleVersionRepository, ScheduleCache scheduleCache) {
+        this.scheduleVersionRepository = scheduleVersionRepository;
+        this.scheduleCache = scheduleCache;
+    }
+
+    @EventListener
+    public void onScheduleChanged(ScheduleChangedEvent event) {
+        scheduleVersionRepository.bump(event.getUserId(), LocalDateTime.now());
+    }
+
+    // Users who never changed anything are at version 0
+
+    @Transactional(readOnly = true)
+    public ScheduleVersion getVersion(Long userId) {
+        return scheduleVersionRepository.findById(userId)
+                .orElseGet(() -> new ScheduleVersion(userId, 0L, NEVER_MODIFIED));
+    }
+
+    // A cached view with the version it belongs to. The version is read first,
+    // in the caller's transaction, and only a view cached at that version is
+    // used, so the data is never older than the version its ETag is built from,
+    // even before the after-commit eviction has run or on another node.
+
+    @Transactional(readOnly = true)
+    public <T> VersionedView<T> cachedView(Long userId, String view, Supplier<T> loader) {
+        ScheduleVersion version = getVersion(userId);
+        return new VersionedView<>(version, scheduleCache.get(userId, view, version.getVersion(), loader));
+    }
+
+    // Strong ETag for one view of the schedule, e.g. "u1-v7-exams". Views that
+    // depend on request parameters pass them too and get a digest of them
+    // appended, e.g. "u1-v7-range-9c1f0e6a2b7d4d13", so a tag issued for one
+    // set of parameters never validates a cached response for another.
+
+    public String etag(ScheduleVersion version, String view, Object... parameters) {
+        String tag = "u" + version.getUserId() + "-v" + version.getVersion() + "-" + view;
+        if (parameters.length > 0) {
+            tag += "-" + digest(parameters);
+        }
+        return "\"" + tag + "\"";
+    }
+
+    // Each parameter is length-prefixed and null is distinct from "", so
+    // different parameter lists cannot run together into the same input
+
+    private static String digest(Object[] parameters) {
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (Object parameter : parameters) {
+            byte[] value = parameter == null ? new byte[0] : parameter.toString().getBytes(StandardCharsets.UTF_8);
+            sha256.update(ByteBuffer.allocate(5).put((byte) (parameter == null ? 0 : 1)).putInt(value.length).array());
+            sha256.update(value);
+        }
+        return HexFormat.of().formatHex(sha256.digest(), 0, PARAMETER_DIGEST_BYTES);
+    }
+
+    public long lastModified(ScheduleVersion version) {
+        return lastModified(version.getUpdatedAt());
+    }
+
+    public long lastModified(LocalDateTime updatedAt) {
+        return updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
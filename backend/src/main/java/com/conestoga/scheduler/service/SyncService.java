@@ -0,0 +1,68 @@
+package com.conestoga.scheduler.service;
+
+import com.conestoga.scheduler.dto.SyncDTO;
+import com.conestoga.scheduler.dto.TombstoneDTO;
+import com.conestoga.scheduler.entity.SyncTombstone;
+import com.conestoga.scheduler.repository.CourseRepository;
+import com.conestoga.scheduler.repository.ExamRepository;
+import com.conestoga.scheduler.repository.SyncTombstoneRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Delta sync for offline clients. A sync returns the rows written since the
+// client's version plus tombstones for what was deleted, read through the
+// change_version indexes, so its cost follows the number of changes rather
+// than the size of the schedule.
+//
+// The new version is taken before the reads (see V3__change_versions.sql),
+// so a change committing during the sync is returned now or next time, never
+// skipped; applying a row twice is harmless.
+
+@Service
+@Timed("scheduler.service")
+public class SyncService {
+
+    private final CourseRepository courseRepository;
+    private final ExamRepository examRepository;
+    private final SyncTombstoneRepository syncTombstoneRepository;
+
+    @Autowired
+    public SyncService(CourseRepository courseRepository, ExamRepository examRepository,
+            SyncTombstoneRepository syncTombstoneRepository) {
+        this.courseRepository = courseRepository;
+        this.examRepository = examRepository;
+        this.syncTombstoneRepository = syncTombstoneRepository;
+    }
+
+    // Get everything that changed since a version, or the whole schedule when
+    // there is no version or its tombstones have been compacted away
+
+    @Transactional(readOnly = true)
+    public SyncDTO getChanges(Long userId, Long since) {
+        long version = syncTombstoneRepository.currentSyncVersion();
+
+        if (since == null || since <= 0 || since <= syncTombstoneRepository.findCompactionHorizon()) {
+            return new SyncDTO(version, true,
+                    CourseService.convertToDTOs(courseRepository.findByUserId(userId)),
+                    ExamService.convertToDTOs(examRepository.findByCourseUserId(userId)),
+                    List.of());
+        }
+        // A replica that is behind the client's last sync must not move it back
+        version = Math.max(version, since);
+
+        List<SyncTombstone> tombstones = syncTombstoneRepository.findByUserIdSince(userId, since);
+        List<TombstoneDTO> deleted = new ArrayList<>(tombstones.size());
+        for (SyncTombstone tombstone : tombstones) {
+            deleted.add(new TombstoneDTO(tombstone.getEntityType(), tombstone.getEntityId()));
+        }
+        return new SyncDTO(version, false,
+                CourseService.convertToDTOs(courseRepository.findChangedByUserId(userId, since)),
+                ExamService.convertToDTOs(examRepository.findChangedByCourseUserId(userId, since)),
+                deleted);
+    }
+}
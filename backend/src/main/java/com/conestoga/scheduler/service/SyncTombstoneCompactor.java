@@ -0,0 +1,67 @@
+package com.conestoga.scheduler.service;
+
+import com.conestoga.scheduler.repository.SyncTombstoneRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Periodically deletes sync tombstones older than the retention, one chunk
+// per transaction, and raises the compaction horizon past them. Clients that
+// have not synced within the retention get a full snapshot on their next sync.
+// Running on several nodes at once only splits the work.
+
+@Component
+@ConditionalOnProperty(name = "scheduler.sync.compaction.enabled", havingValue = "true", matchIfMissing = true)
+public class SyncTombstoneCompactor {
+
+    private static final Logger log = LoggerFactory.getLogger(SyncTombstoneCompactor.class);
+
+    private final SyncTombstoneRepository syncTombstoneRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+    private final int chunkSize;
+    private final Counter compactedRows;
+
+    @Autowired
+    public SyncTombstoneCompactor(SyncTombstoneRepository syncTombstoneRepository,
+            TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+            @Value("${scheduler.sync.tombstone-retention:P30D}") Duration retention,
+            @Value("${scheduler.sync.compaction.chunk-size:5000}") int chunkSize) {
+        this.syncTombstoneRepository = syncTombstoneRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.retention = retention;
+        this.chunkSize = chunkSize;
+        this.compactedRows = meterRegistry.counter("scheduler.sync.tombstones.compacted");
+    }
+
+    @Scheduled(fixedDelayString = "${scheduler.sync.compaction.interval:PT1H}",
+            initialDelayString = "${scheduler.sync.compaction.initial-delay:PT5M}")
+    public void compact() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        long total = 0;
+        while (true) {
+            Long deleted = transactionTemplate.execute(status -> syncTombstoneRepository.compact(cutoff, chunkSize));
+            if (deleted == null || deleted == 0) {
+                break;
+            }
+            total += deleted;
+            compactedRows.increment(deleted);
+            if (deleted < chunkSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Compacted {} sync tombstones older than {}", total, cutoff);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.conestoga.scheduler.service;
+
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+// Fixed-size pools for work that must not run on the application task
+// executor, which serves streaming responses. With virtual threads active the
+// pool threads are virtual, so blocked work only parks them.
+//
+// The pools are owned by the services that use them and not declared as
+// beans: Spring Boot only creates applicationTaskExecutor when the context
+// has no other Executor bean.
+
+final class TaskPools {
+
+    private TaskPools() {
+    }
+
+    static ThreadPoolTaskExecutor fixed(String threadNamePrefix, int threads, Environment environment) {
+        ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+        pool.setCorePoolSize(threads);
+        pool.setMaxPoolSize(threads);
+        pool.setThreadNamePrefix(threadNamePrefix);
+        if (Threading.VIRTUAL.isActive(environment)) {
+            pool.setThreadFactory(new VirtualThreadTaskExecutor(threadNamePrefix).getVirtualThreadFactory());
+        }
+        pool.initialize();
+        return pool;
+    }
+}
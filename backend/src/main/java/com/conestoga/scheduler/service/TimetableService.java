@@ -0,0 +1,364 @@
+package com.conestoga.scheduler.service;
+
+import com.conestoga.scheduler.dto.RoomDTO;
+import com.conestoga.scheduler.dto.TimetableJobDTO;
+import com.conestoga.scheduler.dto.TimetableRequestDTO;
+import com.conestoga.scheduler.entity.Course;
+import com.conestoga.scheduler.entity.Exam;
+import com.conestoga.scheduler.entity.ExamStatus;
+import com.conestoga.scheduler.event.ScheduleChangedEvent;
+import com.conestoga.scheduler.repository.CourseRepository;
+import com.conestoga.scheduler.repository.ExamRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Builds a term-wide exam timetable in the background. Courses are grouped
+// into offerings by course code (each Course row is one student's enrollment),
+// offerings sharing a student or an instructor are connected in the conflict
+// graph, and TimetableSolver assigns every offering a day and slot.
+
+@Service
+public class TimetableService {
+
+    // Edge weight for offerings taught by the same instructor, in students
+    private static final int INSTRUCTOR_EDGE_WEIGHT = 50;
+    private static final long MAX_TIME_BUDGET_MILLIS = 300_000;
+    private static final int PERSIST_CHUNK_SIZE = 500;
+
+    private final CourseRepository courseRepository;
+    private final ExamRepository examRepository;
+    private final AdminAccess adminAccess;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BackgroundJobs backgroundJobs;
+
+    private final JobRegistry<Job> jobs;
+
+    @Autowired
+    public TimetableService(CourseRepository courseRepository, ExamRepository examRepository,
+            AdminAccess adminAccess, EntityManager entityManager, TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher eventPublisher,
+            BackgroundJobs backgroundJobs,
+            @Value("${scheduler.jobs.retention:PT1H}") Duration jobRetention) {
+        this.courseRepository = courseRepository;
+        this.examRepository = examRepository;
+        this.adminAccess = adminAccess;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.backgroundJobs = backgroundJobs;
+        this.jobs = new JobRegistry<>(jobRetention, Job::isFinished);
+    }
+
+    // Start a solver run for a term (admins only)
+
+    public TimetableJobDTO startJob(TimetableRequestDTO request, Long userId) {
+        adminAccess.requireAdmin(userId);
+
+        long budgetMillis = Math.min(request.getTimeBudgetMillis(), MAX_TIME_BUDGET_MILLIS);
+        Job job = new Job(UUID.randomUUID().toString(), request.getTerm(), TimeUnit.MILLISECONDS.toNanos(budgetMillis));
+        jobs.add(job.id, job);
+        backgroundJobs.submit(() -> run(job, request));
+        return job.snapshot();
+    }
+
+    // Get progress and score of a solver run
+
+    public TimetableJobDTO getJob(String jobId, Long userId) {
+        adminAccess.requireAdmin(userId);
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            throw new RuntimeException("Timetable job not found with id: " + jobId);
+        }
+        return job.snapshot();
+    }
+
+    private void run(Job job, TimetableRequestDTO request) {
+        try {
+            List<LocalDate> days = request.getDays().stream().distinct().sorted().collect(Collectors.toList());
+            List<LocalTime> slotTimes = request.getSlotTimes().stream().distinct().sorted().collect(Collectors.toList());
+
+            // One offering per course code; its Course rows are the enrolled students
+            Map<String, List<Course>> offerings = new LinkedHashMap<>();
+            for (Course course : courseRepository.findByTerm(request.getTerm())) {
+                offerings.computeIfAbsent(course.getCourseCode().trim().toUpperCase(), code -> new ArrayList<>()).add(course);
+            }
+            List<List<Course>> members = new ArrayList<>(offerings.values());
+            int n = members.size();
+            int[] enrollment = new int[n];
+            for (int i = 0; i < n; i++) {
+                enrollment[i] = members.get(i).size();
+            }
+            job.started(n);
+
+            long seatsPerSlot = request.getRooms().stream().mapToLong(RoomDTO::getCapacity).sum();
+            int[][][] graph = buildConflictGraph(members);
+            TimetableSolver solver = new TimetableSolver(enrollment, graph[0], graph[1],
+                    days.size(), slotTimes.size(), seatsPerSlot);
+
+            int[] initial = solver.initialAssignment();
+            job.improved(solver.cost(initial), true);
+            int parallelism = Runtime.getRuntime().availableProcessors();
+            int[] best = solver.solve(initial, job.startNanos + job.budgetNanos, parallelism,
+                    score -> job.improved(score, false));
+
+            String[] locations = new String[n];
+            int unseated = assignRooms(best, enrollment, request.getRooms(), solver.slotCount(), locations);
+            int[] clashes = solver.clashes(best);
+
+            int created = 0;
+            if (request.isPersist()) {
+                created = persist(members, best, locations, days, slotTimes, request);
+            }
+            job.completed(solver.cost(best), clashes[0], clashes[1], unseated, created);
+        } catch (RuntimeException e) {
+            job.failed(e.getMessage());
+        } finally {
+            jobs.finished(job.id, job);
+        }
+    }
+
+    // Returns {neighbours, weights} adjacency arrays of the offering graph
+
+    private int[][][] buildConflictGraph(List<List<Course>> members) {
+        int n = members.size();
+        Map<Long, Set<Integer>> offeringsByUser = new HashMap<>();
+        Map<String, Set<Integer>> offeringsByInstructor = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            for (Course course : members.get(i)) {
+                offeringsByUser.computeIfAbsent(course.getUserId(), id -> new LinkedHashSet<>()).add(i);
+                if (course.getInstructor() != null && !course.getInstructor().isBlank()) {
+                    offeringsByInstructor.computeIfAbsent(course.getInstructor().trim().toLowerCase(),
+                            name -> new LinkedHashSet<>()).add(i);
+                }
+            }
+        }
+
+        // Edge key i * n + j with i < j
+        Map<Long, Integer> edges = new HashMap<>();
+        for (Set<Integer> shared : offeringsByUser.values()) {
+            addClique(edges, shared, n, 1);
+        }
+        for (Set<Integer> shared : offeringsByInstructor.values()) {
+            addClique(edges, shared, n, INSTRUCTOR_EDGE_WEIGHT);
+        }
+
+        int[] degree = new int[n];
+        for (long key : edges.keySet()) {
+            degree[(int) (key / n)]++;
+            degree[(int) (key % n)]++;
+        }
+        int[][] neighbours = new int[n][];
+        int[][] weights = new int[n][];
+        for (int i = 0; i < n; i++) {
+            neighbours[i] = new int[degree[i]];
+            weights[i] = new int[degree[i]];
+        }
+        int[] filled = new int[n];
+        for (Map.Entry<Long, Integer> edge : edges.entrySet()) {
+            int i = (int) (edge.getKey() / n);
+            int j = (int) (edge.getKey() % n);
+            neighbours[i][filled[i]] = j;
+            weights[i][filled[i]++] = edge.getValue();
+            neighbours[j][filled[j]] = i;
+            weights[j][filled[j]++] = edge.getValue();
+        }
+        return new int[][][] { neighbours, weights };
+    }
+
+    private void addClique(Map<Long, Integer> edges, Set<Integer> vertices, int n, int weight) {
+        Integer[] members = vertices.toArray(new Integer[0]);
+        for (int a = 0; a < members.length; a++) {
+            for (int b = a + 1; b < members.length; b++) {
+                long key = (long) Math.min(members[a], members[b]) * n + Math.max(members[a], members[b]);
+                edges.merge(key, weight, Integer::sum);
+            }
+        }
+    }
+
+    // Per slot, seat the largest offerings first: the smallest room that holds
+    // an offering on its own, otherwise the largest rooms left until it fits.
+    // Returns the number of students without a seat.
+
+    private int assignRooms(int[] assignment, int[] enrollment, List<RoomDTO> rooms, int slots, String[] locations) {
+        if (rooms.isEmpty()) {
+            return 0;
+        }
+        List<List<Integer>> bySlot = new ArrayList<>(slots);
+        for (int slot = 0; slot < slots; slot++) {
+            bySlot.add(new ArrayList<>());
+        }
+        for (int i = 0; i < assignment.length; i++) {
+            bySlot.get(assignment[i]).add(i);
+        }
+
+        int unseated = 0;
+        for (List<Integer> offerings : bySlot) {
+            offerings.sort(Comparator.comparingInt((Integer i) -> enrollment[i]).reversed());
+            List<RoomDTO> available = new ArrayList<>(rooms);
+            available.sort(Comparator.comparingInt(RoomDTO::getCapacity));
+
+            for (int offering : offerings) {
+                List<String> taken = new ArrayList<>();
+                int remaining = enrollment[offering];
+                RoomDTO single = available.stream()
+                        .filter(room -> room.getCapacity() >= enrollment[offering])
+                        .findFirst()
+                        .orElse(null);
+                if (single != null) {
+                    available.remove(single);
+                    taken.add(single.getName());
+                    remaining = 0;
+                }
+                while (remaining > 0 && !available.isEmpty()) {
+                    RoomDTO largest = available.remove(available.size() - 1);
+                    taken.add(largest.getName());
+                    remaining -= largest.getCapacity();
+                }
+                unseated += Math.max(0, remaining);
+                locations[offering] = taken.isEmpty() ? null : String.join(", ", taken);
+            }
+        }
+        return unseated;
+    }
+
+    // Save one exam per enrolled Course row in a single transaction, flushed in
+    // JDBC batches. Courses that already have an exam of the requested type are
+    // skipped, so running the same term again does not duplicate exams.
+
+    private int persist(List<List<Course>> members, int[] assignment, String[] locations,
+            List<LocalDate> days, List<LocalTime> slotTimes, TimetableRequestDTO request) {
+        return transactionTemplate.execute(status -> {
+            Set<Long> scheduled = new HashSet<>(
+                    examRepository.findCourseIdsByTermAndExamType(request.getTerm(), request.getExamType()));
+            List<Exam> exams = new ArrayList<>();
+            Set<Long> userIds = new HashSet<>();
+            for (int i = 0; i < members.size(); i++) {
+                LocalDate date = days.get(assignment[i] / slotTimes.size());
+                LocalTime time = slotTimes.get(assignment[i] % slotTimes.size());
+                for (Course course : members.get(i)) {
+                    if (scheduled.contains(course.getId())) {
+                        continue;
+                    }
+                    exams.add(new Exam(course, request.getExamType(), date, time, locations[i],
+                            request.getDuration(), ExamStatus.UPCOMING));
+                    userIds.add(course.getUserId());
+                }
+            }
+
+            for (int from = 0; from < exams.size(); from += PERSIST_CHUNK_SIZE) {
+                examRepository.saveAll(exams.subList(from, Math.min(from + PERSIST_CHUNK_SIZE, exams.size())));
+                entityManager.flush();
+                entityManager.clear();
+            }
+            for (Long userId : userIds) {
+                eventPublisher.publishEvent(new ScheduleChangedEvent(userId,
+                        ScheduleChangedEvent.EntityType.EXAM, ScheduleChangedEvent.Action.CREATED, null));
+            }
+            return exams.size();
+        });
+    }
+
+    // Mutable job state shared between the solver thread and status requests
+
+    private static final class Job {
+
+        private final String id;
+        private final String term;
+        private final long startNanos = System.nanoTime();
+        private final long budgetNanos;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+
+        private String status = "RUNNING";
+        private int courses;
+        private Long initialScore;
+        private Long bestScore;
+        private Integer conflicts;
+        private Integer backToBack;
+        private Integer unseated;
+        private Integer examsCreated;
+        private String message;
+        private LocalDateTime finishedAt;
+
+        Job(String id, String term, long budgetNanos) {
+            this.id = id;
+            this.term = term;
+            this.budgetNanos = budgetNanos;
+        }
+
+        synchronized void started(int courses) {
+            this.courses = courses;
+        }
+
+        synchronized boolean isFinished() {
+            return finishedAt != null;
+        }
+
+        synchronized void improved(long score, boolean initial) {
+            if (initial) {
+                initialScore = score;
+            }
+            if (bestScore == null || score < bestScore) {
+                bestScore = score;
+            }
+        }
+
+        synchronized void completed(long score, int conflicts, int backToBack, int unseated, int examsCreated) {
+            this.status = "COMPLETED";
+            this.bestScore = score;
+            this.conflicts = conflicts;
+            this.backToBack = backToBack;
+            this.unseated = unseated;
+            this.examsCreated = examsCreated;
+            this.finishedAt = LocalDateTime.now();
+        }
+
+        synchronized void failed(String message) {
+            this.status = "FAILED";
+            this.message = message;
+            this.finishedAt = LocalDateTime.now();
+        }
+
+        synchronized TimetableJobDTO snapshot() {
+            TimetableJobDTO dto = new TimetableJobDTO();
+            dto.setJobId(id);
+            dto.setTerm(term);
+            dto.setStatus(status);
+            dto.setProgress(finishedAt != null ? 1.0
+                    : Math.min(1.0, (double) (System.nanoTime() - startNanos) / budgetNanos));
+            dto.setCourses(courses);
+            dto.setInitialScore(initialScore);
+            dto.setBestScore(bestScore);
+            dto.setConflicts(conflicts);
+            dto.setBackToBack(backToBack);
+            dto.setUnseatedStudents(unseated);
+            dto.setExamsCreated(examsCreated);
+            dto.setMessage(message);
+            dto.setStartedAt(startedAt);
+            dto.setFinishedAt(finishedAt);
+            return dto;
+        }
+    }
+}
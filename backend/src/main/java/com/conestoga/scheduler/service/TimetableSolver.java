@@ -0,0 +1,283 @@
+package com.conestoga.scheduler.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.LongConsumer;
+
+// Exam timetabling over a weighted conflict graph. Offerings (course codes)
+// are vertices, slots are colours. Edge weights count the students two
+// offerings share, plus a fixed weight when they share an instructor.
+//
+// Cost = CONFLICT_WEIGHT per clashing edge weight in the same slot
+//      + BACK_TO_BACK_WEIGHT per edge weight in consecutive slots of one day
+//      + UNSEATED_WEIGHT per student that does not fit in the slot's rooms.
+//
+// A DSatur greedy colouring gives the starting point; independent simulated
+// annealing chains then run in parallel on a fork-join pool until the time
+// budget runs out and the cheapest assignment wins. Every move is priced
+// incrementally from the moved offering's neighbours, so a chain can try
+// millions of moves even with thousands of offerings.
+
+final class TimetableSolver {
+
+    static final long CONFLICT_WEIGHT = 1000;
+    static final long BACK_TO_BACK_WEIGHT = 1;
+    static final long UNSEATED_WEIGHT = 100;
+
+    private static final double START_TEMPERATURE = CONFLICT_WEIGHT;
+    private static final double END_TEMPERATURE = 0.05;
+    private static final int CLOCK_CHECK_INTERVAL = 4096;
+
+    private final int[] enrollment;
+    private final int[][] neighbours;
+    private final int[][] weights;
+    private final int slotsPerDay;
+    private final int slots;
+
+    // Zero means rooms are not constrained
+    private final long seatsPerSlot;
+
+    TimetableSolver(int[] enrollment, int[][] neighbours, int[][] weights,
+            int days, int slotsPerDay, long seatsPerSlot) {
+        this.enrollment = enrollment;
+        this.neighbours = neighbours;
+        this.weights = weights;
+        this.slotsPerDay = slotsPerDay;
+        this.slots = days * slotsPerDay;
+        this.seatsPerSlot = seatsPerSlot;
+    }
+
+    int slotCount() {
+        return slots;
+    }
+
+    // DSatur: repeatedly colour the offering whose neighbours already use the
+    // most distinct slots, giving it the slot that adds the least cost.
+
+    int[] initialAssignment() {
+        int n = enrollment.length;
+        int[] assignment = new int[n];
+        Arrays.fill(assignment, -1);
+        long[] load = new long[slots];
+        int[] saturation = new int[n];
+        BitSet[] neighbourSlots = new BitSet[n];
+        for (int i = 0; i < n; i++) {
+            neighbourSlots[i] = new BitSet(slots);
+        }
+
+        for (int step = 0; step < n; step++) {
+            int next = -1;
+            for (int i = 0; i < n; i++) {
+                if (assignment[i] < 0 && (next < 0
+                        || saturation[i] > saturation[next]
+                        || (saturation[i] == saturation[next] && neighbours[i].length > neighbours[next].length))) {
+                    next = i;
+                }
+            }
+
+            int bestSlot = 0;
+            long bestCost = Long.MAX_VALUE;
+            for (int slot = 0; slot < slots; slot++) {
+                long cost = capacityDelta(load, -1, slot, enrollment[next]);
+                for (int k = 0; k < neighbours[next].length; k++) {
+                    int other = assignment[neighbours[next][k]];
+                    if (other >= 0) {
+                        cost += pairPenalty(slot, other) * weights[next][k];
+                    }
+                }
+                if (cost < bestCost || (cost == bestCost && load[slot] < load[bestSlot])) {
+                    bestCost = cost;
+                    bestSlot = slot;
+                }
+            }
+
+            assignment[next] = bestSlot;
+            load[bestSlot] += enrollment[next];
+            for (int neighbour : neighbours[next]) {
+                if (!neighbourSlots[neighbour].get(bestSlot)) {
+                    neighbourSlots[neighbour].set(bestSlot);
+                    saturation[neighbour]++;
+                }
+            }
+        }
+        return assignment;
+    }
+
+    // Run one annealing chain per worker and return the cheapest result.
+    // onImprovement receives new best costs as they are found.
+
+    int[] solve(int[] initial, long deadlineNanos, int parallelism, LongConsumer onImprovement) {
+        if (enrollment.length == 0 || slots < 2) {
+            return initial.clone();
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<Callable<int[]>> chains = new ArrayList<>(parallelism);
+            SplittableRandom seeds = new SplittableRandom();
+            long start = System.nanoTime();
+            for (int i = 0; i < parallelism; i++) {
+                SplittableRandom random = seeds.split();
+                chains.add(() -> anneal(initial, random, start, deadlineNanos, onImprovement));
+            }
+
+            int[] best = initial;
+            long bestCost = cost(initial);
+            for (Future<int[]> chain : pool.invokeAll(chains)) {
+                int[] candidate = chain.get();
+                long candidateCost = cost(candidate);
+                if (candidateCost < bestCost) {
+                    best = candidate;
+                    bestCost = candidateCost;
+                }
+            }
+            return best;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Timetable solver interrupted");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Timetable solver failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private int[] anneal(int[] initial, SplittableRandom random, long start, long deadlineNanos,
+            LongConsumer onImprovement) {
+        int n = enrollment.length;
+        int[] assignment = initial.clone();
+        long[] load = slotLoad(assignment);
+        long current = cost(assignment);
+        int[] best = assignment.clone();
+        long bestCost = current;
+        boolean improved = false;
+
+        double temperature = START_TEMPERATURE;
+        double span = Math.max(1, deadlineNanos - start);
+        for (long iteration = 0; bestCost > 0; iteration++) {
+            if (iteration % CLOCK_CHECK_INTERVAL == 0) {
+                long now = System.nanoTime();
+                if (now >= deadlineNanos || Thread.currentThread().isInterrupted()) {
+                    break;
+                }
+                double elapsed = (now - start) / span;
+                temperature = START_TEMPERATURE * Math.pow(END_TEMPERATURE / START_TEMPERATURE, elapsed);
+                if (improved) {
+                    onImprovement.accept(bestCost);
+                    improved = false;
+                }
+            }
+
+            int offering = random.nextInt(n);
+            int from = assignment[offering];
+            int to = random.nextInt(slots - 1);
+            if (to >= from) {
+                to++;
+            }
+
+            long delta = moveDelta(assignment, load, offering, from, to);
+            if (delta <= 0 || random.nextDouble() < Math.exp(-delta / temperature)) {
+                assignment[offering] = to;
+                load[from] -= enrollment[offering];
+                load[to] += enrollment[offering];
+                current += delta;
+                if (current < bestCost) {
+                    bestCost = current;
+                    System.arraycopy(assignment, 0, best, 0, n);
+                    improved = true;
+                }
+            }
+        }
+        onImprovement.accept(bestCost);
+        return best;
+    }
+
+    long cost(int[] assignment) {
+        long total = 0;
+        for (int i = 0; i < assignment.length; i++) {
+            for (int k = 0; k < neighbours[i].length; k++) {
+                int j = neighbours[i][k];
+                if (i < j) {
+                    total += pairPenalty(assignment[i], assignment[j]) * weights[i][k];
+                }
+            }
+        }
+        if (seatsPerSlot > 0) {
+            for (long seats : slotLoad(assignment)) {
+                total += UNSEATED_WEIGHT * Math.max(0, seats - seatsPerSlot);
+            }
+        }
+        return total;
+    }
+
+    // Number of clashing edges and back-to-back edges in an assignment
+
+    int[] clashes(int[] assignment) {
+        int conflicts = 0;
+        int backToBack = 0;
+        for (int i = 0; i < assignment.length; i++) {
+            for (int j : neighbours[i]) {
+                if (i < j) {
+                    long penalty = pairPenalty(assignment[i], assignment[j]);
+                    if (penalty == CONFLICT_WEIGHT) {
+                        conflicts++;
+                    } else if (penalty == BACK_TO_BACK_WEIGHT) {
+                        backToBack++;
+                    }
+                }
+            }
+        }
+        return new int[] { conflicts, backToBack };
+    }
+
+    private long moveDelta(int[] assignment, long[] load, int offering, int from, int to) {
+        long delta = 0;
+        int[] adjacent = neighbours[offering];
+        int[] weight = weights[offering];
+        for (int k = 0; k < adjacent.length; k++) {
+            int other = assignment[adjacent[k]];
+            delta += (pairPenalty(to, other) - pairPenalty(from, other)) * weight[k];
+        }
+        return delta + capacityDelta(load, from, to, enrollment[offering]);
+    }
+
+    private long capacityDelta(long[] load, int from, int to, int seats) {
+        if (seatsPerSlot == 0) {
+            return 0;
+        }
+        long delta = overflow(load[to] + seats) - overflow(load[to]);
+        if (from >= 0) {
+            delta += overflow(load[from] - seats) - overflow(load[from]);
+        }
+        return UNSEATED_WEIGHT * delta;
+    }
+
+    private long overflow(long seats) {
+        return Math.max(0, seats - seatsPerSlot);
+    }
+
+    private long pairPenalty(int a, int b) {
+        if (a == b) {
+            return CONFLICT_WEIGHT;
+        }
+        if (a / slotsPerDay == b / slotsPerDay && Math.abs(a - b) == 1) {
+            return BACK_TO_BACK_WEIGHT;
+        }
+        return 0;
+    }
+
+    private long[] slotLoad(int[] assignment) {
+        long[] load = new long[slots];
+        for (int i = 0; i < assignment.length; i++) {
+            load[assignment[i]] += enrollment[i];
+        }
+        return load;
+    }
+}
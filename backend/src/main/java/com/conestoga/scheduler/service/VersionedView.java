@@ -0,0 +1,26 @@
+package com.conestoga.scheduler.service;
+
+import com.conestoga.scheduler.entity.ScheduleVersion;
+
+// A schedule view together with the version of the user's schedule it was
+// read at. Controllers build ETag and Last-Modified from this version rather
+// than reading it separately, so the validators always describe the body.
+
+public class VersionedView<T> {
+
+    private final ScheduleVersion version;
+    private final T value;
+
+    public VersionedView(ScheduleVersion version, T value) {
+        this.version = version;
+        this.value = value;
+    }
+
+    public ScheduleVersion getVersion() {
+        return version;
+    }
+
+    public T getValue() {
+        return value;
+    }
+}
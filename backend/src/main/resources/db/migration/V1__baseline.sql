@@ -0,0 +1,61 @@
+-- Baseline schema, matching what spring.jpa.hibernate.ddl-auto=update used to
+-- create. Every statement is idempotent: databases created before migrations
+-- are baselined at version 0 (spring.flyway.baseline-version) and run this too.
+
+CREATE SEQUENCE IF NOT EXISTS courses_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS exams_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS courses (
+    id          bigint       NOT NULL,
+    user_id     bigint       NOT NULL,
+    course_code varchar(255) NOT NULL,
+    course_name varchar(255) NOT NULL,
+    instructor  varchar(255),
+    term        varchar(255) NOT NULL,
+    created_at  timestamp(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS exams (
+    id         bigint       NOT NULL,
+    course_id  bigint       NOT NULL,
+    exam_type  varchar(255) NOT NULL,
+    exam_date  date         NOT NULL,
+    exam_time  time(6)      NOT NULL,
+    location   varchar(255),
+    duration   float(53),
+    status     varchar(255) NOT NULL CHECK (status IN ('UPCOMING', 'COMPLETED')),
+    created_at timestamp(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS schedule_versions (
+    user_id    bigint       NOT NULL,
+    version    bigint       NOT NULL,
+    updated_at timestamp(6) NOT NULL,
+    PRIMARY KEY (user_id)
+);
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conrelid = 'exams'::regclass AND contype = 'f') THEN
+        ALTER TABLE exams ADD CONSTRAINT fk_exams_course FOREIGN KEY (course_id) REFERENCES courses (id);
+    END IF;
+END
+$$;
+
+-- Ids are allocated in blocks of 50 from the sequences; move them past rows
+-- inserted before the sequences existed (never backwards)
+SELECT setval('courses_seq', GREATEST((SELECT COALESCE(MAX(id), 1) FROM courses), (SELECT last_value FROM courses_seq)));
+SELECT setval('exams_seq', GREATEST((SELECT COALESCE(MAX(id), 1) FROM exams), (SELECT last_value FROM exams_seq)));
+
+-- Course search: trigram GIN indexes serve ILIKE '%text%' on code, name and instructor
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_courses_course_code_trgm ON courses USING gin (course_code gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_courses_course_name_trgm ON courses USING gin (course_name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_courses_instructor_trgm ON courses USING gin (instructor gin_trgm_ops);
+
+-- Course search: B-tree prefix indexes for search text shorter than a trigram
+CREATE INDEX IF NOT EXISTS idx_courses_course_code_prefix ON courses (lower(course_code) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_courses_course_name_prefix ON courses (lower(course_name) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_courses_instructor_prefix ON courses (lower(instructor) text_pattern_ops);
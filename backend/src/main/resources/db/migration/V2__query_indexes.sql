@@ -0,0 +1,23 @@
+-- Indexes matched to the repository queries. Exams are always reached through
+-- a user's courses: the planner finds the user's few courses by user_id, then
+-- range-scans exams per course, already ordered by (exam_date, exam_time, id).
+
+-- CourseRepository.findByUserId, findByUserIdAndTerm, findFirstPageByUserId and
+-- findPageByUserIdAfter (keyset on term, course_code, id); also the course ids
+-- for every ExamRepository query that filters on c.userId (index-only)
+CREATE INDEX IF NOT EXISTS idx_courses_user_term_code ON courses (user_id, term, course_code, id);
+
+-- CourseRepository.findByTerm and ExamRepository.streamByCourseTerm (ordered by user)
+CREATE INDEX IF NOT EXISTS idx_courses_term_user ON courses (term, user_id, id);
+
+-- ExamRepository user-scoped reads: all exams, date range, today, keyset pages,
+-- exports; findByCourseId; the foreign key on course deletes
+CREATE INDEX IF NOT EXISTS idx_exams_course_date_time ON exams (course_id, exam_date, exam_time, id);
+
+-- ExamRepository.findByCourseUserIdAndStatus
+CREATE INDEX IF NOT EXISTS idx_exams_course_status_date ON exams (course_id, status, exam_date);
+
+-- ExamRepository.completeFinishedExams: only UPCOMING rows are candidates, and
+-- the end-time check is answered from the index
+CREATE INDEX IF NOT EXISTS idx_exams_upcoming_date ON exams (exam_date) INCLUDE (exam_time, duration)
+    WHERE status = 'UPCOMING';
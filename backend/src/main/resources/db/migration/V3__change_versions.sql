@@ -0,0 +1,84 @@
+-- Delta sync. Every course and exam row carries the id of the transaction
+-- that last wrote it (change_version) and when (updated_at); deletes leave a
+-- tombstone. Triggers maintain both, so set-based UPDATEs that bypass
+-- Hibernate (bulk status changes, the completion sweeper) are versioned too.
+--
+-- Transaction ids are handed out at transaction start, not at commit, so a
+-- client must not simply continue after the highest version it has seen.
+-- It continues from the xmin of the snapshot taken before its last read:
+-- every transaction below it had finished, everything later is re-read.
+
+ALTER TABLE courses ADD COLUMN change_version bigint NOT NULL DEFAULT 0;
+ALTER TABLE courses ADD COLUMN updated_at timestamp(6) NOT NULL DEFAULT now();
+ALTER TABLE exams ADD COLUMN change_version bigint NOT NULL DEFAULT 0;
+ALTER TABLE exams ADD COLUMN updated_at timestamp(6) NOT NULL DEFAULT now();
+
+CREATE FUNCTION stamp_change_version() RETURNS trigger AS $$
+BEGIN
+    NEW.change_version := pg_current_xact_id()::text::bigint;
+    NEW.updated_at := now();
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER courses_change_version BEFORE INSERT OR UPDATE ON courses
+    FOR EACH ROW EXECUTE FUNCTION stamp_change_version();
+CREATE TRIGGER exams_change_version BEFORE INSERT OR UPDATE ON exams
+    FOR EACH ROW EXECUTE FUNCTION stamp_change_version();
+
+CREATE TABLE sync_tombstones (
+    id             bigserial    NOT NULL,
+    user_id        bigint       NOT NULL,
+    entity_type    varchar(16)  NOT NULL CHECK (entity_type IN ('COURSE', 'EXAM')),
+    entity_id      bigint       NOT NULL,
+    change_version bigint       NOT NULL,
+    deleted_at     timestamp(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE FUNCTION record_course_tombstone() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO sync_tombstones (user_id, entity_type, entity_id, change_version, deleted_at)
+    VALUES (OLD.user_id, 'COURSE', OLD.id, pg_current_xact_id()::text::bigint, now());
+    RETURN OLD;
+END
+$$ LANGUAGE plpgsql;
+
+-- An exam whose course is gone in the same statement is covered by the
+-- course's tombstone: clients drop a deleted course's exams with it
+CREATE FUNCTION record_exam_tombstone() RETURNS trigger AS $$
+DECLARE
+    exam_owner bigint;
+BEGIN
+    SELECT user_id INTO exam_owner FROM courses WHERE id = OLD.course_id;
+    IF exam_owner IS NOT NULL THEN
+        INSERT INTO sync_tombstones (user_id, entity_type, entity_id, change_version, deleted_at)
+        VALUES (exam_owner, 'EXAM', OLD.id, pg_current_xact_id()::text::bigint, now());
+    END IF;
+    RETURN OLD;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER courses_tombstone AFTER DELETE ON courses
+    FOR EACH ROW EXECUTE FUNCTION record_course_tombstone();
+CREATE TRIGGER exams_tombstone AFTER DELETE ON exams
+    FOR EACH ROW EXECUTE FUNCTION record_exam_tombstone();
+
+-- Highest change_version of any compacted tombstone; a client syncing from
+-- at or below it may have missed deletes and gets a full snapshot instead
+CREATE TABLE sync_compaction (
+    id      integer NOT NULL CHECK (id = 1),
+    horizon bigint  NOT NULL,
+    PRIMARY KEY (id)
+);
+INSERT INTO sync_compaction (id, horizon) VALUES (1, 0);
+
+-- CourseRepository.findChangedByUserId
+CREATE INDEX idx_courses_user_change_version ON courses (user_id, change_version);
+
+-- ExamRepository.findChangedByCourseUserId (through the user's course ids)
+CREATE INDEX idx_exams_course_change_version ON exams (course_id, change_version);
+
+-- SyncTombstoneRepository.findByUserIdSince and compaction
+CREATE INDEX idx_sync_tombstones_user_version ON sync_tombstones (user_id, change_version);
+CREATE INDEX idx_sync_tombstones_deleted_at ON sync_tombstones (deleted_at);
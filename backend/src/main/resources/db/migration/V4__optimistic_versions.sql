@@ -0,0 +1,10 @@
+-- Optimistic locking. version counts the writes to a row: Hibernate checks and
+-- increments it for entity updates (@Version), and the owner-scoped UPDATE and
+-- DELETE statements in the repositories do the same in SQL, so a client that
+-- sends the version it read cannot overwrite a newer edit.
+--
+-- Unlike change_version, which the triggers set to a transaction id, this is
+-- a per-row counter the application controls.
+
+ALTER TABLE courses ADD COLUMN version bigint NOT NULL DEFAULT 0;
+ALTER TABLE exams ADD COLUMN version bigint NOT NULL DEFAULT 0;
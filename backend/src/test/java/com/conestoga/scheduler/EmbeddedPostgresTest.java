@@ -0,0 +1,45 @@
+package com.conestoga.scheduler;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+// Base for tests that need the real database: the native queries and the
+// Flyway migrations are PostgreSQL-specific. One throwaway server is started
+// per JVM and shared by every test class; tests keep apart by using their own
+// user ids. The background sweepers are off so they cannot touch test data.
+
+@SpringBootTest(properties = {
+        "scheduler.sweeper.enabled=false",
+        "scheduler.sync.compaction.enabled=false",
+        "scheduler.admin-user-ids=" + EmbeddedPostgresTest.ADMIN_USER_ID
+})
+public abstract class EmbeddedPostgresTest {
+
+    protected static final long ADMIN_USER_ID = 7_000_000L;
+
+    private static EmbeddedPostgres postgres;
+
+    @DynamicPropertySource
+    static void databaseProperties(DynamicPropertyRegistry registry) {
+        EmbeddedPostgres server = server();
+        registry.add("spring.datasource.url", () -> server.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    protected static synchronized EmbeddedPostgres server() {
+        if (postgres == null) {
+            try {
+                postgres = EmbeddedPostgres.start();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return postgres;
+    }
+}
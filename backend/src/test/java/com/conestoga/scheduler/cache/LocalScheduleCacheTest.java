@@ -0,0 +1,46 @@
+package com.conestoga.scheduler.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalScheduleCacheTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LocalScheduleCache cache = new LocalScheduleCache(100, 10, Duration.ofMinutes(10), meterRegistry);
+
+    @Test
+    void oneUserCannotGrowTheCachePastTheViewBound() throws InterruptedException {
+        for (int day = 0; day < 1000; day++) {
+            cache.get(1L, "exams:range=" + day, 0, () -> "exams");
+        }
+
+        // Caffeine evicts in the background
+        double size = Double.MAX_VALUE;
+        for (int i = 0; i < 50 && size > 10; i++) {
+            Thread.sleep(20);
+            size = meterRegistry.get("cache.size").tag("cache", "schedules").gauge().value();
+        }
+        assertThat(size).isLessThanOrEqualTo(10);
+    }
+
+    @Test
+    void viewsAreReloadedAfterEvictionOrAtAnotherVersion() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, "exams", 3, loads::incrementAndGet);
+        cache.get(1L, "exams", 3, loads::incrementAndGet);
+        assertThat(loads).hasValue(1);
+
+        cache.get(1L, "exams", 4, loads::incrementAndGet);
+        assertThat(loads).hasValue(2);
+
+        cache.evict(1L);
+        assertThat((Integer) cache.get(1L, "exams", 4, loads::incrementAndGet)).isEqualTo(3);
+    }
+}
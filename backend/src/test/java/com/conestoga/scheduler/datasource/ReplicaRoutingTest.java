@@ -0,0 +1,112 @@
+package com.conestoga.scheduler.datasource;
+
+import com.conestoga.scheduler.EmbeddedPostgresTest;
+import com.conestoga.scheduler.dto.CourseDTO;
+import com.conestoga.scheduler.service.CourseService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A second throwaway server stands in for the replica. Nothing replicates
+// between the two, so where a row turns up shows which server a call used.
+
+class ReplicaRoutingTest extends EmbeddedPostgresTest {
+
+    private static EmbeddedPostgres replica;
+
+    @Autowired
+    private CourseService courseService;
+
+    @DynamicPropertySource
+    static void replicaProperties(DynamicPropertyRegistry registry) {
+        EmbeddedPostgres server = replica();
+        registry.add("scheduler.datasource.replica-urls", () -> server.getJdbcUrl("postgres", "postgres"));
+        registry.add("scheduler.datasource.sticky-window", () -> "1m");
+    }
+
+    @AfterEach
+    void unbindUser() {
+        ReadYourWritesTracker.clear();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        Long userId = 7_400_001L;
+        insertOnReplica(userId, "RR1000");
+
+        assertThat(codes(courseService.getAllCourses(userId).getValue())).containsExactly("RR1000");
+    }
+
+    @Test
+    void writesGoToThePrimary() {
+        Long userId = 7_400_002L;
+        courseService.createCourse(course("RW1000"), userId);
+
+        assertThat(countCourses(new JdbcTemplate(server().getPostgresDatabase()), userId)).isEqualTo(1);
+        assertThat(countCourses(new JdbcTemplate(replica().getPostgresDatabase()), userId)).isZero();
+    }
+
+    @Test
+    void readsWithinTheStickyWindowGoToThePrimary() {
+        Long userId = 7_400_003L;
+        insertOnReplica(userId, "RS1000");
+        ReadYourWritesTracker.bindUser(userId);
+
+        courseService.createCourse(course("RS2000"), userId);
+
+        assertThat(codes(courseService.getAllCourses(userId).getValue())).containsExactly("RS2000");
+
+        // Another user's reads are not pinned
+        Long otherUserId = 7_400_004L;
+        insertOnReplica(otherUserId, "RS3000");
+        ReadYourWritesTracker.bindUser(otherUserId);
+        assertThat(codes(courseService.getAllCourses(otherUserId).getValue())).containsExactly("RS3000");
+    }
+
+    private static synchronized EmbeddedPostgres replica() {
+        if (replica == null) {
+            try {
+                replica = EmbeddedPostgres.start();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            Flyway.configure().dataSource(replica.getPostgresDatabase()).load().migrate();
+        }
+        return replica;
+    }
+
+    private static void insertOnReplica(Long userId, String courseCode) {
+        new JdbcTemplate(replica().getPostgresDatabase()).update(
+                "INSERT INTO courses (id, user_id, course_code, course_name, instructor, term, created_at) "
+                        + "VALUES (nextval('courses_seq'), ?, ?, 'Replica row', 'Instructor', 'Test term', now())",
+                userId, courseCode);
+    }
+
+    private static int countCourses(JdbcTemplate jdbcTemplate, Long userId) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM courses WHERE user_id = ?", Integer.class, userId);
+    }
+
+    private static CourseDTO course(String courseCode) {
+        CourseDTO course = new CourseDTO();
+        course.setCourseCode(courseCode);
+        course.setCourseName("Routing test");
+        course.setInstructor("Instructor");
+        course.setTerm("Test term");
+        return course;
+    }
+
+    private static List<String> codes(List<CourseDTO> courses) {
+        return courses.stream().map(CourseDTO::getCourseCode).toList();
+    }
+}
@@ -0,0 +1,86 @@
+package com.conestoga.scheduler.service;
+
+import com.conestoga.scheduler.EmbeddedPostgresTest;
+import com.conestoga.scheduler.dto.ExamDTO;
+import com.conestoga.scheduler.entity.Course;
+import com.conestoga.scheduler.repository.CourseRepository;
+import com.conestoga.scheduler.repository.ExamRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExamServiceConflictTest extends EmbeddedPostgresTest {
+
+    private static final int WRITERS = 8;
+
+    @Autowired
+    private ExamService examService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ExamRepository examRepository;
+
+    @Test
+    void rejectsAnOverlappingExam() {
+        Long userId = 7_200_001L;
+        Course course = courseRepository.save(new Course("CF1000", "Conflict test", "Instructor", "Test term", userId));
+        LocalDate date = LocalDate.now().plusDays(3);
+
+        examService.createExam(exam(course, date, LocalTime.of(9, 0)), userId);
+
+        assertThatThrownBy(() -> examService.createExam(exam(course, date, LocalTime.of(10, 30)), userId))
+                .hasMessageStartingWith("Exam conflicts with CF1000");
+    }
+
+    // Concurrent creates of the same slot must not both pass the check
+
+    @Test
+    void concurrentOverlappingCreatesCommitOnlyOne() throws Exception {
+        Long userId = 7_200_002L;
+        Course course = courseRepository.save(new Course("CF2000", "Conflict race", "Instructor", "Test term", userId));
+        LocalDate date = LocalDate.now().plusDays(3);
+
+        ExecutorService writers = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < WRITERS; i++) {
+            results.add(writers.submit(() -> {
+                start.await();
+                try {
+                    examService.createExam(exam(course, date, LocalTime.of(9, 0)), userId);
+                    return true;
+                } catch (RuntimeException e) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+
+        int created = 0;
+        for (Future<Boolean> result : results) {
+            created += result.get(30, TimeUnit.SECONDS) ? 1 : 0;
+        }
+        writers.shutdown();
+
+        assertThat(created).isEqualTo(1);
+        assertThat(examRepository.findByCourseId(course.getId())).hasSize(1);
+    }
+
+    private static ExamDTO exam(Course course, LocalDate date, LocalTime time) {
+        return new ExamDTO(null, course.getId(), "Midterm", date, time, "Room 1", 2.0, "upcoming", null, null);
+    }
+}
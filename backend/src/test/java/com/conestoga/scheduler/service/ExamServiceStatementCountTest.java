@@ -0,0 +1,95 @@
+package com.conestoga.scheduler.service;
+
+import com.conestoga.scheduler.EmbeddedPostgresTest;
+import com.conestoga.scheduler.entity.Course;
+import com.conestoga.scheduler.entity.Exam;
+import com.conestoga.scheduler.entity.ExamStatus;
+import com.conestoga.scheduler.metrics.QueryCounter;
+import com.conestoga.scheduler.repository.CourseRepository;
+import com.conestoga.scheduler.repository.ExamRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The list reads must cost the same number of statements whether a user has
+// one course or many, i.e. no lazy course load per exam.
+
+class ExamServiceStatementCountTest extends EmbeddedPostgresTest {
+
+    private static final AtomicLong NEXT_USER_ID = new AtomicLong(7_100_000);
+    private static final int MANY_COURSES = 25;
+
+    @Autowired
+    private ExamService examService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ExamRepository examRepository;
+
+    @Test
+    void getAllExamsIsIndependentOfCourseCount() {
+        assertSameStatementCount(userId -> examService.getAllExams(userId));
+    }
+
+    @Test
+    void getExamsByStatusIsIndependentOfCourseCount() {
+        assertSameStatementCount(userId -> examService.getExamsByStatus(userId, "upcoming"));
+    }
+
+    @Test
+    void getExamsInDateRangeIsIndependentOfCourseCount() {
+        LocalDate today = LocalDate.now();
+        assertSameStatementCount(userId -> examService.getExamsInDateRange(userId, today.minusDays(7), today.plusDays(30)));
+    }
+
+    @Test
+    void getTodaysExamsIsIndependentOfCourseCount() {
+        assertSameStatementCount(userId -> examService.getTodaysExams(userId, LocalDate.now()));
+    }
+
+    private void assertSameStatementCount(Consumer<Long> read) {
+        // Fresh users for every read, so the schedule cache is always cold
+        int oneCourse = statements(seedUser(1), read);
+        int manyCourses = statements(seedUser(MANY_COURSES), read);
+
+        assertThat(oneCourse).isPositive();
+        assertThat(manyCourses).isEqualTo(oneCourse);
+    }
+
+    private int statements(Long userId, Consumer<Long> read) {
+        QueryCounter.start();
+        try {
+            read.accept(userId);
+            return QueryCounter.stop().getStatements();
+        } finally {
+            QueryCounter.stop();
+        }
+    }
+
+    // Two exams per course: one today and one next week, both upcoming
+
+    private Long seedUser(int courses) {
+        Long userId = NEXT_USER_ID.getAndIncrement();
+        List<Exam> exams = new ArrayList<>();
+        for (int i = 0; i < courses; i++) {
+            Course course = courseRepository.save(
+                    new Course("ST" + (1000 + i), "Statement test " + i, "Instructor", "Test term", userId));
+            exams.add(new Exam(course, "Midterm", LocalDate.now(), LocalTime.of(8, 0).plusMinutes(15L * i),
+                    "Room " + i, 0.25, ExamStatus.UPCOMING));
+            exams.add(new Exam(course, "Final", LocalDate.now().plusDays(7), LocalTime.of(8, 0).plusMinutes(15L * i),
+                    "Room " + i, 0.25, ExamStatus.UPCOMING));
+        }
+        examRepository.saveAll(exams);
+        return userId;
+    }
+}
@@ -0,0 +1,27 @@
+package com.conestoga.scheduler.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JobRegistryTest {
+
+    @Test
+    void keepsRunningJobsAndDropsFinishedOnesAfterRetention() throws InterruptedException {
+        JobRegistry<AtomicBoolean> jobs = new JobRegistry<>(Duration.ofMillis(50), AtomicBoolean::get);
+        AtomicBoolean running = new AtomicBoolean(false);
+        AtomicBoolean finished = new AtomicBoolean(false);
+        jobs.add("running", running);
+        jobs.add("finished", finished);
+
+        finished.set(true);
+        jobs.finished("finished", finished);
+        Thread.sleep(200);
+
+        assertThat(jobs.get("running")).isSameAs(running);
+        assertThat(jobs.get("finished")).isNull();
+    }
+}
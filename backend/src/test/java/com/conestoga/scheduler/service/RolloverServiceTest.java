@@ -0,0 +1,93 @@
+package com.conestoga.scheduler.service;
+
+import com.conestoga.scheduler.EmbeddedPostgresTest;
+import com.conestoga.scheduler.dto.RolloverJobDTO;
+import com.conestoga.scheduler.dto.RolloverRequestDTO;
+import com.conestoga.scheduler.entity.Course;
+import com.conestoga.scheduler.entity.Exam;
+import com.conestoga.scheduler.entity.ExamStatus;
+import com.conestoga.scheduler.repository.CourseRepository;
+import com.conestoga.scheduler.repository.ExamRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@TestPropertySource(properties = "scheduler.jobs.retention=PT1S")
+class RolloverServiceTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private RolloverService rolloverService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ExamRepository examRepository;
+
+    @Test
+    void finishedJobsAreDroppedAfterTheRetention() throws InterruptedException {
+        courseRepository.save(new Course("RO1000", "Rollover test", "Instructor", "Rollover from", 7_500_001L));
+
+        RolloverJobDTO job = rolloverService.startJob(new RolloverRequestDTO("Rollover from", "Rollover to", 364),
+                ADMIN_USER_ID);
+        for (int i = 0; i < 300 && "RUNNING".equals(job.getStatus()); i++) {
+            Thread.sleep(100);
+            job = rolloverService.getJob(job.getJobId(), ADMIN_USER_ID);
+        }
+        assertThat(job.getStatus()).isEqualTo("COMPLETED");
+        assertThat(job.getCoursesCreated()).isEqualTo(1);
+
+        String jobId = job.getJobId();
+        Thread.sleep(1500);
+        assertThatThrownBy(() -> rolloverService.getJob(jobId, ADMIN_USER_ID))
+                .hasMessage("Rollover job not found with id: " + jobId);
+    }
+
+    @Test
+    void rolloverOverlappingAnExistingExamIsRejected() {
+        Long userId = 7_500_002L;
+        // Copied to 2030-01-17 09:00-11:00, over the existing 10:00 exam
+        addExam(userId, "RO2000", "Conflict from", LocalDate.of(2030, 1, 10), LocalTime.of(9, 0));
+        addExam(userId, "RO2001", "Other term", LocalDate.of(2030, 1, 17), LocalTime.of(10, 0));
+
+        assertThatThrownBy(() -> rolloverService.rollover(new RolloverRequestDTO("Conflict from", "Conflict to", 7),
+                userId)).hasMessageContaining("overlap");
+        assertThat(courseRepository.countUsersByTerm("Conflict to")).isZero();
+
+        // Ending exactly when the existing exam starts is no overlap
+        assertThat(rolloverService.rollover(new RolloverRequestDTO("Conflict from", "Conflict to", 6), userId)
+                .getExamsCreated()).isEqualTo(1);
+    }
+
+    @Test
+    void jobsSkipUsersWhoseExamsWouldOverlap() throws InterruptedException {
+        addExam(7_500_003L, "RO3000", "Job conflict from", LocalDate.of(2030, 2, 1), LocalTime.of(9, 0));
+        addExam(7_500_003L, "RO3001", "Other term", LocalDate.of(2030, 2, 8), LocalTime.of(10, 0));
+        addExam(7_500_004L, "RO4000", "Job conflict from", LocalDate.of(2030, 2, 1), LocalTime.of(9, 0));
+
+        RolloverJobDTO job = rolloverService.startJob(
+                new RolloverRequestDTO("Job conflict from", "Job conflict to", 7), ADMIN_USER_ID);
+        for (int i = 0; i < 300 && "RUNNING".equals(job.getStatus()); i++) {
+            Thread.sleep(100);
+            job = rolloverService.getJob(job.getJobId(), ADMIN_USER_ID);
+        }
+        assertThat(job.getStatus()).isEqualTo("COMPLETED");
+        assertThat(job.getUsersSkipped()).isEqualTo(1);
+        assertThat(job.getCoursesCreated()).isEqualTo(1);
+        assertThat(courseRepository.findUserIdsByTermAfter("Job conflict to", Long.MIN_VALUE, PageRequest.ofSize(10)))
+                .containsExactly(7_500_004L);
+    }
+
+    // A two-hour exam in its own course
+    private void addExam(Long userId, String courseCode, String term, LocalDate date, LocalTime time) {
+        Course course = courseRepository.save(new Course(courseCode, "Rollover test", "Instructor", term, userId));
+        examRepository.save(new Exam(course, "Final", date, time, "Room 1", 2.0, ExamStatus.UPCOMING));
+    }
+}
@@ -0,0 +1,59 @@
+package com.conestoga.scheduler.service;
+
+import com.conestoga.scheduler.EmbeddedPostgresTest;
+import com.conestoga.scheduler.dto.CourseDTO;
+import com.conestoga.scheduler.event.ScheduleChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+class ScheduleChangeFanOutTest extends EmbeddedPostgresTest {
+
+    @SpyBean
+    private ScheduleChangeStream scheduleChangeStream;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    void changesCommittedOnAnotherNodeReachTheStream() {
+        new JdbcTemplate(server().getPostgresDatabase())
+                .queryForList("SELECT pg_notify('schedule_changes', '7800001:EXAM:UPDATED:42')");
+
+        verify(scheduleChangeStream, timeout(5000)).publish(argThat(event -> event.getUserId() == 7_800_001L
+                && event.getEntityType() == ScheduleChangedEvent.EntityType.EXAM && event.getEntityId() == 42L));
+    }
+
+    @Test
+    void onlyCommittedChangesAreDelivered() {
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new ScheduleChangedEvent(7_800_002L,
+                    ScheduleChangedEvent.EntityType.COURSE, ScheduleChangedEvent.Action.CREATED, null));
+            status.setRollbackOnly();
+        });
+        CourseDTO course = new CourseDTO();
+        course.setCourseCode("FO1000");
+        course.setCourseName("Fan-out test");
+        course.setInstructor("Instructor");
+        course.setTerm("Test term");
+        courseService.createCourse(course, 7_800_003L);
+
+        // Notifications arrive in commit order, so the rolled-back one would have come first
+        verify(scheduleChangeStream, timeout(5000)).publish(argThat(event -> event.getUserId() == 7_800_003L));
+        verify(scheduleChangeStream, never()).publish(argThat(event -> event.getUserId() == 7_800_002L));
+    }
+}
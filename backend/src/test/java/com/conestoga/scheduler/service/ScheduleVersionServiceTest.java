@@ -0,0 +1,42 @@
+package com.conestoga.scheduler.service;
+
+import com.conestoga.scheduler.entity.ScheduleVersion;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScheduleVersionServiceTest {
+
+    private final ScheduleVersionService service = new ScheduleVersionService(null, null);
+    private final ScheduleVersion version = new ScheduleVersion(1L, 7L, LocalDateTime.now());
+
+    @Test
+    void viewWithoutParametersKeepsItsPlainTag() {
+        assertThat(service.etag(version, "calendar")).isEqualTo("\"u1-v7-calendar\"");
+    }
+
+    @Test
+    void parametersChangeTheTag() {
+        LocalDate start = LocalDate.of(2024, 11, 1);
+        String november = service.etag(version, "range", start, LocalDate.of(2024, 11, 30));
+
+        assertThat(november).startsWith("\"u1-v7-range-")
+                .isEqualTo(service.etag(version, "range", start, LocalDate.of(2024, 11, 30)))
+                .isNotEqualTo(service.etag(version, "range", start, LocalDate.of(2024, 12, 31)));
+        assertThat(service.etag(version, "exams", (Object) null))
+                .isNotEqualTo(service.etag(version, "exams", "upcoming"))
+                .isNotEqualTo(service.etag(version, "exams", ""));
+    }
+
+    @Test
+    void parametersDoNotRunTogether() {
+        assertThat(service.etag(version, "query", "ab", "c"))
+                .isNotEqualTo(service.etag(version, "query", "a", "bc"));
+        assertThat(service.etag(version, "query", List.of(1L, 2L), null))
+                .isNotEqualTo(service.etag(version, "query", null, List.of(1L, 2L)));
+    }
+}
@@ -0,0 +1,50 @@
+package com.conestoga.scheduler.service;
+
+import com.conestoga.scheduler.EmbeddedPostgresTest;
+import com.conestoga.scheduler.dto.CourseDTO;
+import com.conestoga.scheduler.entity.Course;
+import com.conestoga.scheduler.repository.CourseRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScheduleViewCacheTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    // A change committed elsewhere (another node, or before this node's
+    // after-commit eviction ran) never reaches the local cache's evict
+
+    @Test
+    void viewCachedAtAnOlderVersionIsReloaded() {
+        Long userId = 7_600_001L;
+        courseRepository.save(new Course("VC1000", "View cache", "Instructor", "Test term", userId));
+
+        VersionedView<List<CourseDTO>> before = courseService.getAllCourses(userId);
+        assertThat(codes(before.getValue())).containsExactly("VC1000");
+
+        JdbcTemplate otherNode = new JdbcTemplate(server().getPostgresDatabase());
+        otherNode.update("INSERT INTO courses (id, user_id, course_code, course_name, instructor, term, created_at) "
+                + "VALUES (nextval('courses_seq'), ?, 'VC2000', 'View cache', 'Instructor', 'Test term', now())",
+                userId);
+        otherNode.update("INSERT INTO schedule_versions (user_id, version, updated_at) VALUES (?, 1, now()) "
+                + "ON CONFLICT (user_id) DO UPDATE SET version = schedule_versions.version + 1, updated_at = now()",
+                userId);
+
+        VersionedView<List<CourseDTO>> after = courseService.getAllCourses(userId);
+        assertThat(after.getVersion().getVersion()).isGreaterThan(before.getVersion().getVersion());
+        assertThat(codes(after.getValue())).containsExactlyInAnyOrder("VC1000", "VC2000");
+    }
+
+    private static List<String> codes(List<CourseDTO> courses) {
+        return courses.stream().map(CourseDTO::getCourseCode).toList();
+    }
+}
@@ -0,0 +1,68 @@
+package com.conestoga.scheduler.service;
+
+import com.conestoga.scheduler.EmbeddedPostgresTest;
+import com.conestoga.scheduler.dto.TimetableJobDTO;
+import com.conestoga.scheduler.dto.TimetableRequestDTO;
+import com.conestoga.scheduler.entity.Course;
+import com.conestoga.scheduler.repository.CourseRepository;
+import com.conestoga.scheduler.repository.ExamRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimetableServiceTest extends EmbeddedPostgresTest {
+
+    private static final String TERM = "Timetable test";
+
+    @Autowired
+    private TimetableService timetableService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ExamRepository examRepository;
+
+    @Test
+    void rerunningATermDoesNotDuplicateExams() throws InterruptedException {
+        // Three offerings with two enrolled students each
+        List<Course> courses = new ArrayList<>();
+        for (int code = 0; code < 3; code++) {
+            for (long userId = 7_300_001L; userId <= 7_300_002L; userId++) {
+                courses.add(courseRepository.save(
+                        new Course("TT" + (1000 + code), "Timetable " + code, "Instructor " + code, TERM, userId)));
+            }
+        }
+
+        TimetableJobDTO first = runToCompletion();
+        TimetableJobDTO second = runToCompletion();
+
+        assertThat(first.getExamsCreated()).isEqualTo(courses.size());
+        assertThat(second.getExamsCreated()).isZero();
+        for (Course course : courses) {
+            assertThat(examRepository.findByCourseId(course.getId())).hasSize(1);
+        }
+    }
+
+    private TimetableJobDTO runToCompletion() throws InterruptedException {
+        TimetableRequestDTO request = new TimetableRequestDTO();
+        request.setTerm(TERM);
+        request.setDays(List.of(LocalDate.now().plusDays(30), LocalDate.now().plusDays(31)));
+        request.setSlotTimes(List.of(LocalTime.of(9, 0), LocalTime.of(14, 0)));
+        request.setTimeBudgetMillis(200L);
+
+        TimetableJobDTO job = timetableService.startJob(request, ADMIN_USER_ID);
+        for (int i = 0; i < 300 && "RUNNING".equals(job.getStatus()); i++) {
+            Thread.sleep(100);
+            job = timetableService.getJob(job.getJobId(), ADMIN_USER_ID);
+        }
+        assertThat(job.getStatus()).isEqualTo("COMPLETED");
+        return job;
+    }
+}